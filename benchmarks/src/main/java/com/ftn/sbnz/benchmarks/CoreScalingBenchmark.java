@@ -0,0 +1,96 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.ProcessDto;
+import com.ftn.sbnz.service.dtos.SystemDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a workload to completion with the facts built from a request, the way simulations build them,
+ * for a growing number of cores. The secondary "processes" result is the number of completed processes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoreScalingBenchmark {
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int cores;
+
+    @Param({"1024"})
+    public int processes;
+
+    @Param({"10"})
+    public int instructions;
+
+    private SystemStateDto systemState;
+    private KieSession kieSession;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Completed {
+        public long processes;
+    }
+
+    @Setup(Level.Trial)
+    public void createRequest() {
+        SystemDto system = new SystemDto();
+        system.setCpuCores(cores);
+        system.setTotalMemory(processes * Workloads.MEMORY_REQUIREMENT * 4);
+
+        Random random = new Random(42);
+        List<ProcessDto> processDtos = new ArrayList<>();
+        for (int id = 1; id <= processes; id++) {
+            ProcessDto process = new ProcessDto();
+            process.setId(String.valueOf(id));
+            process.setInstructions(instructions);
+            process.setIoInstructions(Collections.emptyList());
+            process.setMemoryRequirement(Workloads.MEMORY_REQUIREMENT);
+            process.setSafeMemoryLimit(Workloads.MEMORY_REQUIREMENT);
+            process.setPriority(1 + random.nextInt(10));
+            processDtos.add(process);
+        }
+
+        systemState = new SystemStateDto();
+        systemState.setSystem(system);
+        systemState.setProcesses(processDtos);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        kieSession = DroolsUtil.getSession();
+        kieSession.insert(systemState.getMemoryStateModel());
+        kieSession.insert(systemState.getCpuStateModel());
+        for (CpuCore core : systemState.getCpuCoreModels()) {
+            kieSession.insert(core);
+        }
+        for (Process process : systemState.getProcessModels()) {
+            kieSession.insert(process);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public int fireAllRules(Completed completed) {
+        int fired = kieSession.fireAllRules();
+        completed.processes += processes;
+        return fired;
+    }
+}
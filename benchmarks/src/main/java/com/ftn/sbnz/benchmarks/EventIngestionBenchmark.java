@@ -0,0 +1,111 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.simulation.EventFeed;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.time.SessionPseudoClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate at which several producer threads get events into a session that is inside fireUntilHalt,
+ * either inserting into the entry point themselves or offering them to an {@link EventFeed}
+ * that the engine thread drains in batches.
+ * <p>
+ * The pseudo clock follows the wall clock, so the I/O events expire after 1.5s as in a real time simulation.
+ * A producer that finds the feed full yields and retries, so the buffered rate is the rate the engine sustains.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class EventIngestionBenchmark {
+
+    @Param({"direct", "buffered"})
+    public String ingestion;
+
+    @Param({"100"})
+    public int processes;
+
+    @Param({"4096"})
+    public int capacity;
+
+    private KieSession kieSession;
+    private SessionPseudoClock clock;
+    private EntryPoint ioEntryPoint;
+    private EventFeed feed;
+    private Thread engine;
+    private ScheduledExecutorService ticker;
+    private long startedAtNanos;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kieSession = DroolsUtil.getSession();
+        clock = kieSession.getSessionClock();
+        ioEntryPoint = kieSession.getEntryPoint(IOEvent.ENTRY_POINT);
+        feed = new EventFeed(kieSession, capacity, this::syncClock);
+
+        // no memory or cores are known, so the processes stay new and the events wait for them until they expire
+        for (int id = 1; id <= processes; id++) {
+            kieSession.insert(new Process(id, 5, Workloads.MEMORY_REQUIREMENT, ProcessStatus.NEW, 0,
+                    Collections.singletonList(InstructionType.IO)));
+        }
+
+        startedAtNanos = System.nanoTime();
+        engine = new Thread(kieSession::fireUntilHalt, "engine");
+        engine.start();
+
+        // inserting producers move the clock from their own threads, as the generators used to
+        if (ingestion.equals("direct")) {
+            ticker = Executors.newSingleThreadScheduledExecutor();
+            ticker.scheduleAtFixedRate(this::syncClock, 0, 1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        feed.close();
+        kieSession.halt();
+        engine.join();
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public void ingest(Producer producer) {
+        IOEvent event = new IOEvent(1 + producer.next++ % processes);
+        if (ingestion.equals("direct")) {
+            ioEntryPoint.insert(event);
+        } else {
+            while (!feed.offer(event)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private synchronized void syncClock() {
+        long behindMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos) - clock.getCurrentTime();
+        if (behindMillis > 0) {
+            clock.advanceTime(behindMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.time.SessionPseudoClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate at which CEP events can be inserted and evaluated in a session that is running processes.
+ * Every operation moves the pseudo clock, so the 10s windows keep expiring events at a steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventInsertBenchmark {
+
+    private static final int TEMPERATURES = 1024;
+
+    @Param({"10", "1000"})
+    public int processes;
+
+    @Param({"10"})
+    public long eventIntervalMillis;
+
+    private KieSession kieSession;
+    private SessionPseudoClock clock;
+    private EntryPoint temperatureEntryPoint;
+    private EntryPoint pageFaultEntryPoint;
+    private final float[] temperatures = new float[TEMPERATURES];
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        kieSession = DroolsUtil.getSession();
+        clock = kieSession.getSessionClock();
+        temperatureEntryPoint = kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT);
+        pageFaultEntryPoint = kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT);
+
+        // the processes wait for I/O that never comes, so the session only evaluates the event rules
+        kieSession.insert(new MemoryState(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new CpuCore(1));
+        for (int id = 1; id <= processes; id++) {
+            kieSession.insert(new Process(id, 5, Workloads.MEMORY_REQUIREMENT, ProcessStatus.BLOCKED, 0,
+                    Collections.singletonList(InstructionType.IO)));
+        }
+        kieSession.fireAllRules();
+
+        // the same random walk as the event generator
+        Random random = new Random(42);
+        float temperature = 50;
+        for (int i = 0; i < TEMPERATURES; i++) {
+            temperature = Math.max(20.0f, Math.min(130.0f, temperature + (random.nextFloat() - 0.5f) * 4.0f));
+            temperatures[i] = temperature;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public int insertTemperature() {
+        clock.advanceTime(eventIntervalMillis, TimeUnit.MILLISECONDS);
+        temperatureEntryPoint.insert(new CpuTemperatureEvent(temperatures[next++ % TEMPERATURES]));
+        return kieSession.fireAllRules();
+    }
+
+    @Benchmark
+    public int insertPageFault() {
+        clock.advanceTime(eventIntervalMillis, TimeUnit.MILLISECONDS);
+        pageFaultEntryPoint.insert(new PageFaultEvent(1 + next++ % processes));
+        return kieSession.fireAllRules();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.service.trace.TraceLog;
+import com.ftn.sbnz.service.trace.TraceWriter;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a whole workload to completion with fireAllRules.
+ * The secondary "firings" result is the same time divided by the number of rules fired.
+ * The default grid is large, narrow it down with -p, for example {@code -p processes=1000 -p cores=16}.
+ * {@code -p trace=false,true} compares it with a run that writes every firing to a {@link TraceLog}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FireAllRulesBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int processes;
+
+    @Param({"1", "16", "256"})
+    public int cores;
+
+    @Param({"10", "100"})
+    public int instructions;
+
+    @Param({"1"})
+    public int quantum;
+
+    @Param({"false"})
+    public boolean trace;
+
+    private KieSession kieSession;
+    private TraceLog traceLog;
+    private TraceWriter traceWriter;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Firings {
+        public long firings;
+    }
+
+    @Setup(Level.Trial)
+    public void setUpTraces() throws IOException {
+        traceLog = new TraceLog(Files.createTempDirectory("benchmark-traces").toString(), 16 << 20, 4);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        kieSession = DroolsUtil.getSession();
+        if (trace) {
+            traceWriter = traceLog.open(kieSession);
+        }
+        Workloads.insert(kieSession, processes, cores, instructions, quantum, 42);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        kieSession.dispose();
+        if (traceWriter != null) {
+            traceWriter.close();
+            traceWriter = null;
+        }
+    }
+
+    @Benchmark
+    public int fireAllRules(Firings counter) {
+        int fired = kieSession.fireAllRules();
+        counter.firings += fired;
+        return fired;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.kjar.RuleSet;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.InstructionStream;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.conf.PropertySpecificOption;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a workload to completion with the rules compiled with and without property reactivity.
+ * The secondary "reads" result counts the reads of the process properties the rules constrain,
+ * summed over the measured runs. It includes the reads of the process queues, which are the same in both modes,
+ * so the difference between the modes is the constraint re-evaluations that property reactivity avoids.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class PropertyReactivityBenchmark {
+
+    @Param({"ALWAYS", "DISABLED"})
+    public PropertySpecificOption propertyReactivity;
+
+    @Param({"100", "1000"})
+    public int processes;
+
+    @Param({"4"})
+    public int cores;
+
+    @Param({"100"})
+    public int instructions;
+
+    private KieBase kieBase;
+    private KieSession kieSession;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Reads {
+        public long reads;
+    }
+
+    // every fork compiles the rules once, the option is read by the rule compiler
+    @Setup(Level.Trial)
+    public void compile() {
+        System.setProperty(PropertySpecificOption.PROPERTY_NAME, propertyReactivity.name());
+        kieBase = RuleSet.fromClasspath().compile();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        kieSession = DroolsUtil.getSession(kieBase);
+
+        Random random = new Random(42);
+        int totalMemory = processes * Workloads.MEMORY_REQUIREMENT * 4;
+        InstructionStream program = InstructionStream.regular(instructions);
+
+        kieSession.insert(new MemoryState(totalMemory, totalMemory));
+        kieSession.insert(new CpuState(true));
+        for (int id = 1; id <= cores; id++) {
+            kieSession.insert(new CpuCore(id));
+        }
+        for (int id = 1; id <= processes; id++) {
+            kieSession.insert(new CountingProcess(id, 1 + random.nextInt(10), program));
+        }
+        CountingProcess.reads = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public int fireAllRules(Reads counter) {
+        int fired = kieSession.fireAllRules();
+        counter.reads += CountingProcess.reads;
+        return fired;
+    }
+
+    // the rules see it as a process, its getters count how often constraints are evaluated
+    public static class CountingProcess extends Process {
+
+        private static long reads;
+
+        CountingProcess(int id, int priority, InstructionStream instructions) {
+            super(id, priority, Workloads.MEMORY_REQUIREMENT, ProcessStatus.NEW, 0, instructions);
+        }
+
+        @Override
+        public ProcessStatus getStatus() {
+            reads++;
+            return super.getStatus();
+        }
+
+        @Override
+        public int getPriority() {
+            reads++;
+            return super.getPriority();
+        }
+
+        @Override
+        public int getCurrentInstruction() {
+            reads++;
+            return super.getCurrentInstruction();
+        }
+
+        @Override
+        public InstructionStream getInstructions() {
+            reads++;
+            return super.getInstructions();
+        }
+    }
+}
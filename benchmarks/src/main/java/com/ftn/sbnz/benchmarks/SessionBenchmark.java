@@ -0,0 +1,43 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting a session for a simulation, a new one from the cached KieBase or one from the pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionBenchmark {
+
+    private KieSessionPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new KieSessionPool(1, 1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public void newSession() {
+        KieSession kieSession = DroolsUtil.getSession();
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public void pooledSession() {
+        pool.release(pool.borrow());
+    }
+}
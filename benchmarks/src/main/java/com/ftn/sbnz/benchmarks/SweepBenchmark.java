@@ -0,0 +1,118 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.service.SampleAppService;
+import com.ftn.sbnz.service.WebSocketSender;
+import com.ftn.sbnz.service.WsHandler;
+import com.ftn.sbnz.service.dtos.ProcessDto;
+import com.ftn.sbnz.service.dtos.SweepGridDto;
+import com.ftn.sbnz.service.dtos.SweepRequestDto;
+import com.ftn.sbnz.service.dtos.SweepResultDto;
+import com.ftn.sbnz.service.dtos.SystemDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.metrics.RuleEngineMetrics;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import com.ftn.sbnz.service.sweep.ParameterSweepService;
+import com.ftn.sbnz.service.trace.TraceLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Runs a parameter sweep of fast-forward scenarios on a growing number of sweep threads.
+ * The secondary "scenarios" result is the number of scenarios finished per second; with enough cores it should
+ * grow close to linearly with the threads. Past the number of available processors it levels off, so on a machine
+ * with one or two cores the 1 to 8 thread results say nothing about scaling.
+ * <pre>
+ * mvn -pl benchmarks exec:exec -Djmh.include=SweepBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SweepBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"16"})
+    public int scenarios;
+
+    @Param({"64"})
+    public int processes;
+
+    private KieSessionPool pool;
+    private ScheduledExecutorService scheduler;
+    private ParameterSweepService sweepService;
+    private SweepRequestDto request;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Completed {
+        public long scenarios;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pool = new KieSessionPool(1, 100);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        SampleAppService service = new SampleAppService(new WsHandler(new WebSocketSender(1, 16)), pool, scheduler,
+                new RuleEngineMetrics(new SimpleMeterRegistry()),
+                new TraceLog(Files.createTempDirectory("benchmark-traces").toString(), 1 << 20, 4), 3600000);
+        sweepService = new ParameterSweepService(service, threads, scenarios, scenarios);
+
+        SystemDto system = new SystemDto();
+        system.setCpuCores(4);
+        system.setTotalMemory(processes * Workloads.MEMORY_REQUIREMENT * 4);
+
+        Random random = new Random(42);
+        List<ProcessDto> processDtos = new ArrayList<>();
+        for (int id = 1; id <= processes; id++) {
+            ProcessDto process = new ProcessDto();
+            process.setId(String.valueOf(id));
+            process.setInstructions(20);
+            process.setIoInstructions(List.of(10));
+            process.setMemoryRequirement(Workloads.MEMORY_REQUIREMENT);
+            process.setSafeMemoryLimit(Workloads.MEMORY_REQUIREMENT);
+            process.setPriority(1 + random.nextInt(10));
+            processDtos.add(process);
+        }
+
+        SystemStateDto base = new SystemStateDto();
+        base.setSystem(system);
+        base.setProcesses(processDtos);
+
+        // one configuration with a seed per scenario, so every scenario costs about the same
+        SweepGridDto grid = new SweepGridDto();
+        grid.setSeeds(LongStream.range(0, scenarios).boxed().collect(Collectors.toList()));
+        request = new SweepRequestDto();
+        request.setBase(base);
+        request.setGrid(grid);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sweepService.shutdown();
+        scheduler.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public SweepResultDto sweep(Completed completed) {
+        SweepResultDto result = sweepService.run(request);
+        completed.scenarios += result.getScenarios().size();
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ftn.sbnz.benchmarks;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.InstructionStream;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import org.kie.api.runtime.KieSession;
+
+import java.util.Random;
+
+/**
+ * Builds the facts of a scheduling workload the same way for every benchmark.
+ */
+final class Workloads {
+
+    static final int MEMORY_REQUIREMENT = 64;
+
+    private Workloads() {
+    }
+
+    /**
+     * Inserts a system with enough memory for every process, the given number of idle cores
+     * and new processes with random priorities that only have regular instructions.
+     */
+    static void insert(KieSession kieSession, int processes, int cores, int instructions, int quantum, long seed) {
+        Random random = new Random(seed);
+        int totalMemory = processes * MEMORY_REQUIREMENT * 4;
+        InstructionStream program = InstructionStream.regular(instructions);
+
+        kieSession.insert(new MemoryState(totalMemory, totalMemory));
+        kieSession.insert(new CpuState(true));
+        for (int id = 1; id <= cores; id++) {
+            kieSession.insert(new CpuCore(id));
+        }
+        for (int id = 1; id <= processes; id++) {
+            Process process = new Process(id, 1 + random.nextInt(10), MEMORY_REQUIREMENT, ProcessStatus.NEW, 0, program);
+            process.setQuantum(quantum);
+            kieSession.insert(process);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ftn.sbnz.kjar;
+
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import org.drools.core.util.DroolsStreamUtils;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.KieServices;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.utils.KieHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The complete scheduler rule set of one scheduling policy as it is shipped in the kjar: the rules every policy
+ * shares and the rule package of the policy, which picks, preempts and rotates processes.
+ * Decision-table templates are expanded to DRL at build time by {@link RuleSetCompiler},
+ * which also serializes the compiled KieBase of every policy, so loading one needs no spreadsheet parsing.
+ */
+public class RuleSet {
+
+    public static final String PRIORITY_BOOSTING_RULES = "/rules/template/priority-boosting.drl";
+    public static final String PROCESS_ACCEPTANCE_RULES = "/rules/template/process-acceptance.drl";
+    public static final String FORWARD_RULES = "/rules/forward/forward.drl";
+
+    private static final String[] SHARED_RULE_RESOURCES = {
+            PRIORITY_BOOSTING_RULES, PROCESS_ACCEPTANCE_RULES, FORWARD_RULES
+    };
+
+    private final SchedulingPolicy policy;
+    private final Map<String, byte[]> sources;
+    private final String hash;
+
+    private RuleSet(SchedulingPolicy policy, Map<String, byte[]> sources) {
+        this.policy = policy;
+        this.sources = sources;
+        this.hash = hash(sources);
+    }
+
+    public static RuleSet fromClasspath() {
+        return fromClasspath(SchedulingPolicy.PRIORITY);
+    }
+
+    public static RuleSet fromClasspath(SchedulingPolicy policy) {
+        Map<String, byte[]> sources = new LinkedHashMap<>();
+        for (String resource : getRuleResources(policy)) {
+            sources.put(resource, read(resource));
+        }
+        return new RuleSet(policy, sources);
+    }
+
+    /**
+     * The rules of a policy are in the package rules.policy.&lt;name&gt;, the name is the policy without underscores.
+     */
+    public static String policyRules(SchedulingPolicy policy) {
+        String name = policy.name().toLowerCase(Locale.ROOT).replace("_", "");
+        return "/rules/policy/" + name + "/" + name + ".drl";
+    }
+
+    public static String kieBaseResource(SchedulingPolicy policy) {
+        return "/kbase/" + policy.name().toLowerCase(Locale.ROOT) + ".kbase";
+    }
+
+    public static String kieBaseHashResource(SchedulingPolicy policy) {
+        return "/kbase/" + policy.name().toLowerCase(Locale.ROOT) + ".sha256";
+    }
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Content hash of the DRL sources, identifies the exact rule set a KieBase was built from.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns true when the classpath holds a serialized KieBase built from these exact sources.
+     */
+    public boolean isPrecompiled() {
+        InputStream in = RuleSet.class.getResourceAsStream(kieBaseHashResource(policy));
+        if (in == null) {
+            return false;
+        }
+        try (in) {
+            return hash.equals(new String(in.readAllBytes(), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deserializes the KieBase produced at build time.
+     */
+    public KieBase loadPrecompiled() {
+        String resource = kieBaseResource(policy);
+        try (InputStream in = RuleSet.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing precompiled rule base: " + resource);
+            }
+            return (KieBase) DroolsStreamUtils.streamIn(in, RuleSet.class.getClassLoader());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not load precompiled rule base", e);
+        }
+    }
+
+    /**
+     * Compiles the DRL sources, used at build time and as a fallback when no matching serialized base is present.
+     */
+    public KieBase compile() {
+        KieHelper kieHelper = new KieHelper();
+        sources.values().forEach(content -> kieHelper.addContent(new String(content, StandardCharsets.UTF_8), ResourceType.DRL));
+
+        // CEP configuration
+        KieBaseConfiguration kBaseConfig = KieServices.Factory.get().newKieBaseConfiguration();
+        kBaseConfig.setOption(EventProcessingOption.STREAM);
+
+        return kieHelper.build(kBaseConfig);
+    }
+
+    static RuleSet of(SchedulingPolicy policy, Map<String, byte[]> sources) {
+        return new RuleSet(policy, sources);
+    }
+
+    static String[] getRuleResources(SchedulingPolicy policy) {
+        String[] resources = Arrays.copyOf(SHARED_RULE_RESOURCES, SHARED_RULE_RESOURCES.length + 1);
+        resources[SHARED_RULE_RESOURCES.length] = policyRules(policy);
+        return resources;
+    }
+
+    private static byte[] read(String resource) {
+        try (InputStream in = RuleSet.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing rule resource: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hash(Map<String, byte[]> sources) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, byte[]> source : sources.entrySet()) {
+                digest.update(source.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(source.getValue());
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ftn.sbnz.kjar;
+
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import org.drools.core.util.DroolsStreamUtils;
+import org.drools.decisiontable.ExternalSpreadsheetCompiler;
+import org.kie.api.KieBase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Build step of the kjar module, run by the exec plugin in the process-classes phase.
+ * Expands the decision-table templates into DRL and serializes the compiled KieBase of every scheduling policy
+ * next to the rules.
+ *
+ * Usage: RuleSetCompiler &lt;templates directory&gt; &lt;output directory&gt;
+ */
+public class RuleSetCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RuleSetCompiler <templates directory> <output directory>");
+        }
+
+        Path templates = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        expandTemplate(templates, output, "priority-boosting", RuleSet.PRIORITY_BOOSTING_RULES);
+        expandTemplate(templates, output, "process-acceptance", RuleSet.PROCESS_ACCEPTANCE_RULES);
+
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            compile(output, policy);
+        }
+    }
+
+    private static void compile(Path output, SchedulingPolicy policy) throws IOException {
+        Map<String, byte[]> sources = new LinkedHashMap<>();
+        for (String resource : RuleSet.getRuleResources(policy)) {
+            sources.put(resource, Files.readAllBytes(resolve(output, resource)));
+        }
+        RuleSet ruleSet = RuleSet.of(policy, sources);
+
+        long start = System.nanoTime();
+        KieBase kieBase = ruleSet.compile();
+
+        Path kieBaseFile = resolve(output, RuleSet.kieBaseResource(policy));
+        Files.createDirectories(kieBaseFile.getParent());
+        try (OutputStream out = Files.newOutputStream(kieBaseFile)) {
+            out.write(DroolsStreamUtils.streamOut(kieBase));
+        }
+        Files.write(resolve(output, RuleSet.kieBaseHashResource(policy)), ruleSet.getHash().getBytes(StandardCharsets.UTF_8));
+
+        System.out.println("Compiled " + policy + " rule set " + ruleSet.getHash() + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms to " + kieBaseFile);
+    }
+
+    private static void expandTemplate(Path templates, Path output, String name, String resource) throws IOException {
+        ExternalSpreadsheetCompiler converter = new ExternalSpreadsheetCompiler();
+
+        String rules;
+        try (InputStream data = Files.newInputStream(templates.resolve(name + ".xls"));
+             InputStream template = Files.newInputStream(templates.resolve(name + ".drt"))) {
+            rules = converter.compile(data, template, 2, 2);
+        }
+
+        Path target = resolve(output, resource);
+        Files.createDirectories(target.getParent());
+        Files.write(target, rules.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path resolve(Path output, String resource) {
+        return output.resolve(resource.substring(1));
+    }
+}
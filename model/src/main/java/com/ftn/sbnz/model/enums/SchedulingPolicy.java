@@ -0,0 +1,12 @@
+package com.ftn.sbnz.model.enums;
+
+public enum SchedulingPolicy {
+    // the highest priority runs, a ready process with a higher priority preempts it at once
+    PRIORITY,
+    // priorities as above, processes of the same priority take turns at the end of every time slice
+    ROUND_ROBIN,
+    // the process with the least priority-weighted virtual runtime runs next
+    FAIR,
+    // multilevel feedback queue: a process that uses a whole time slice drops a level, lower levels get longer slices
+    FEEDBACK
+}
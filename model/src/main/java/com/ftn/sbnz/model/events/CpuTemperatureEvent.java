@@ -11,5 +11,7 @@ import org.kie.api.definition.type.Role;
 @AllArgsConstructor
 public class CpuTemperatureEvent {
 
+    public static final String ENTRY_POINT = "temperature";
+
     private float temperature;
 }
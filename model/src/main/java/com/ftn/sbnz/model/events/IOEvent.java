@@ -5,10 +5,14 @@ import lombok.Data;
 import org.kie.api.definition.type.Expires;
 import org.kie.api.definition.type.Role;
 
+// an I/O completion that finds no blocked process is dropped by the next I/O tick
 @Role(Role.Type.EVENT)
 @Data
+@Expires("1500ms")
 @AllArgsConstructor
 public class IOEvent {
 
+    public static final String ENTRY_POINT = "io";
+
     private int processId;
 }
@@ -11,5 +11,7 @@ import org.kie.api.definition.type.Role;
 @AllArgsConstructor
 public class PageFaultEvent {
 
+    public static final String ENTRY_POINT = "page-faults";
+
     private int processId;
 }
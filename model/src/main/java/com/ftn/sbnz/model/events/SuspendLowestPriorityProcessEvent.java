@@ -1,7 +1,18 @@
 package com.ftn.sbnz.model.events;
 
+import lombok.Data;
+import org.kie.api.definition.type.Expires;
 import org.kie.api.definition.type.Role;
 
+// thrashing is detected over a 10s window, a request nothing could act on does not outlive it.
+// A request is marked consumed instead of deleted, so it keeps the detection from raising another one
+// for the same page fault count until the window has moved on
 @Role(Role.Type.EVENT)
+@Expires("10s")
+@Data
 public class SuspendLowestPriorityProcessEvent {
+
+    // page faults in the window when the request was raised
+    private final int pageFaults;
+    private boolean consumed;
 }
@@ -1,34 +1,64 @@
 package com.ftn.sbnz.model.models;
 
 import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.kie.api.definition.type.PropertyReactive;
+import org.kie.api.time.SessionClock;
 
 @Data
 @AllArgsConstructor
+@PropertyReactive
 public class CpuCore {
 
+    // unique within a session, numbered from one
+    private int id;
     private Integer currentProcessId;
     private CpuCoreStatus status;
     private long lastStatusChange;
     private boolean pagingFlag;
+    // time source for status changes, wall clock time is used while no session clock is attached
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SessionClock clock;
 
-    public CpuCore() {
+    public CpuCore(int id) {
+        this.id = id;
         this.currentProcessId = null;
         this.status = CpuCoreStatus.IDLE;
         this.lastStatusChange = System.currentTimeMillis();
         this.pagingFlag = false;
     }
 
-    public CpuCore(Integer currentProcessId, CpuCoreStatus status, long lastStatusChange) {
+    public CpuCore(int id, Integer currentProcessId, CpuCoreStatus status, long lastStatusChange) {
+        this.id = id;
         this.currentProcessId = currentProcessId;
         this.status = status;
         this.lastStatusChange = lastStatusChange;
         this.pagingFlag = false;
     }
 
+    public CpuCore(Integer currentProcessId, CpuCoreStatus status, long lastStatusChange) {
+        this(0, currentProcessId, status, lastStatusChange);
+    }
+
+    /**
+     * Takes status change times from the given session clock from now on, starting with the current time.
+     */
+    public void attachClock(SessionClock clock) {
+        this.clock = clock;
+        this.lastStatusChange = clock.getCurrentTime();
+    }
+
     public void setStatus(CpuCoreStatus status) {
         this.status = status;
-        this.lastStatusChange = System.currentTimeMillis();
+        this.lastStatusChange = clock != null ? clock.getCurrentTime() : System.currentTimeMillis();
     }
 }
@@ -0,0 +1,20 @@
+package com.ftn.sbnz.model.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.kie.api.definition.type.PropertyReactive;
+
+/**
+ * Whether the CPU may run processes, it is disabled while the CPU is overheating.
+ */
+@Data
+@AllArgsConstructor
+@PropertyReactive
+public class CpuState {
+
+    private boolean enabled;
+
+    public CpuState() {
+        this.enabled = true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ftn.sbnz.model.models;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import lombok.EqualsAndHashCode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The instructions of a process, stored as their count and the sorted offsets of the I/O instructions.
+ * Every other instruction is regular, so the memory used only depends on the number of I/O instructions.
+ * Offsets start at zero.
+ */
+@EqualsAndHashCode
+public final class InstructionStream {
+
+    private static final int[] NO_IO = new int[0];
+
+    private final int size;
+    private final int[] ioOffsets;
+
+    private InstructionStream(int size, int[] ioOffsets) {
+        this.size = size;
+        this.ioOffsets = ioOffsets;
+    }
+
+    public static InstructionStream regular(int size) {
+        return new InstructionStream(size, NO_IO);
+    }
+
+    /**
+     * Offsets are sorted and duplicates and offsets outside the stream are dropped.
+     */
+    public static InstructionStream of(int size, int... ioOffsets) {
+        int[] offsets = Arrays.stream(ioOffsets)
+                .filter(offset -> offset >= 0 && offset < size)
+                .sorted()
+                .distinct()
+                .toArray();
+        return new InstructionStream(size, offsets.length == 0 ? NO_IO : offsets);
+    }
+
+    public static InstructionStream of(List<InstructionType> instructions) {
+        int[] offsets = new int[instructions.size()];
+        int count = 0;
+        for (int i = 0; i < instructions.size(); i++) {
+            if (instructions.get(i) == InstructionType.IO) {
+                offsets[count++] = i;
+            }
+        }
+        return new InstructionStream(instructions.size(), count == 0 ? NO_IO : Arrays.copyOf(offsets, count));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasIo() {
+        return ioOffsets.length > 0;
+    }
+
+    public int getIoCount() {
+        return ioOffsets.length;
+    }
+
+    public InstructionType get(int index) {
+        return isIo(index) ? InstructionType.IO : InstructionType.REGULAR;
+    }
+
+    public boolean isIo(int index) {
+        return Arrays.binarySearch(ioOffsets, index) >= 0;
+    }
+
+    /**
+     * Offset of the first I/O instruction at or after the given one, or the size when none is left.
+     */
+    public int nextIo(int from) {
+        int position = Arrays.binarySearch(ioOffsets, from);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < ioOffsets.length ? ioOffsets[position] : size;
+    }
+
+    /**
+     * Regular instructions left before the next I/O instruction or the end of the stream.
+     */
+    public int distanceToNextIo(int from) {
+        return nextIo(from) - from;
+    }
+
+    @Override
+    public String toString() {
+        return size + " instructions, " + ioOffsets.length + " I/O";
+    }
+}
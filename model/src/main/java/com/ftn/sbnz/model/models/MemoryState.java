@@ -2,28 +2,31 @@ package com.ftn.sbnz.model.models;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.kie.api.definition.type.PropertyReactive;
 
+/**
+ * Memory accounting of the system. It is a fact of its own, apart from {@link CpuState},
+ * so admitting and finishing processes does not touch the facts the scheduling and execution rules join.
+ */
 @Data
 @AllArgsConstructor
-public class SystemState {
+@PropertyReactive
+public class MemoryState {
 
     private int availableMemory;
     private int totalMemory;
     private int criticalMemoryLimit;
-    private boolean cpuEnabled;
 
-    public SystemState(int totalMemory) {
+    public MemoryState(int totalMemory) {
         this.availableMemory = totalMemory;
         this.totalMemory = totalMemory;
         this.criticalMemoryLimit = (int) Math.floor(0.15 * totalMemory);
-        this.cpuEnabled = true;
     }
 
-    public SystemState(int availableMemory, int totalMemory, boolean cpuEnabled) {
+    public MemoryState(int availableMemory, int totalMemory) {
         this.availableMemory = availableMemory;
         this.totalMemory = totalMemory;
         this.criticalMemoryLimit = 0;
-        this.cpuEnabled = cpuEnabled;
     }
 
     public float getMemoryUsage() {
@@ -2,15 +2,34 @@ package com.ftn.sbnz.model.models;
 
 import com.ftn.sbnz.model.enums.InstructionType;
 import com.ftn.sbnz.model.enums.ProcessStatus;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.kie.api.definition.type.Modifies;
+import org.kie.api.definition.type.PropertyReactive;
+import org.kie.api.time.SessionClock;
 
 import java.util.List;
 
+/**
+ * Property reactive, a modify only re-evaluates the patterns that constrain the properties it sets.
+ * setStatus also moves lastStatusChange, and setCurrentInstruction moves virtualRuntime; their setters declare it,
+ * so a modify through them re-evaluates patterns on either property.
+ */
 @Data
 @AllArgsConstructor
+@PropertyReactive
 public class Process {
 
+    public static final int DEFAULT_TIME_SLICE = 10;
+    public static final int FEEDBACK_LEVELS = 3;
+    // virtual runtime an instruction adds at priority one, higher priorities age proportionally slower
+    public static final long VIRTUAL_RUNTIME_SCALE = 1000;
+
     private int id;
     private int priority;
     private int memoryRequirement;
@@ -18,9 +37,29 @@ public class Process {
     private ProcessStatus status;
     private int currentInstruction;
     private long lastStatusChange;
-    private List<InstructionType> instructions;
+    private InstructionStream instructions;
+    // most instructions executed in one step, one means a rule firing per instruction
+    private int quantum = 1;
+    // instructions a process runs before a time-slicing policy lets another one in
+    private int timeSlice = DEFAULT_TIME_SLICE;
+    // instruction the running slice ends at, policies without time slices never end it
+    private int sliceEnd = Integer.MAX_VALUE;
+    // feedback queue level, zero is the top level with the shortest slice
+    private int level;
+    private long virtualRuntime;
+    // orders processes that joined a queue at the same virtual time, so processes that became ready together take
+    // turns. The queue of the process's session numbers them, so sessions never share a counter
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private long statusSequence;
+    // time source for status changes, wall clock time is used while no session clock is attached
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SessionClock clock;
 
-    public Process(int id, int priority, int memoryRequirement, int safeMemoryLimit, List<InstructionType> instructions) {
+    public Process(int id, int priority, int memoryRequirement, int safeMemoryLimit, InstructionStream instructions) {
         this.id = id;
         this.priority = priority;
         this.memoryRequirement = memoryRequirement;
@@ -31,18 +70,11 @@ public class Process {
         this.instructions = instructions;
     }
 
-    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, List<InstructionType> instructions) {
-        this.id = id;
-        this.priority = priority;
-        this.memoryRequirement = memoryRequirement;
-        this.safeMemoryLimit = memoryRequirement;
-        this.status = status;
-        this.currentInstruction = currentInstruction;
-        this.lastStatusChange = System.currentTimeMillis();
-        this.instructions = instructions;
+    public Process(int id, int priority, int memoryRequirement, int safeMemoryLimit, List<InstructionType> instructions) {
+        this(id, priority, memoryRequirement, safeMemoryLimit, InstructionStream.of(instructions));
     }
 
-    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, long lastStatusChange, List<InstructionType> instructions) {
+    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, long lastStatusChange, InstructionStream instructions) {
         this.id = id;
         this.priority = priority;
         this.memoryRequirement = memoryRequirement;
@@ -53,8 +85,63 @@ public class Process {
         this.instructions = instructions;
     }
 
+    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, InstructionStream instructions) {
+        this(id, priority, memoryRequirement, status, currentInstruction, System.currentTimeMillis(), instructions);
+    }
+
+    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, List<InstructionType> instructions) {
+        this(id, priority, memoryRequirement, status, currentInstruction, System.currentTimeMillis(), InstructionStream.of(instructions));
+    }
+
+    public Process(int id, int priority, int memoryRequirement, ProcessStatus status, int currentInstruction, long lastStatusChange, List<InstructionType> instructions) {
+        this(id, priority, memoryRequirement, status, currentInstruction, lastStatusChange, InstructionStream.of(instructions));
+    }
+
+    /**
+     * Takes status change times from the given session clock from now on, starting with the current time.
+     */
+    public void attachClock(SessionClock clock) {
+        this.clock = clock;
+        this.lastStatusChange = clock.getCurrentTime();
+    }
+
+    /**
+     * Index of the instruction after the current step. A step runs the current instruction and then
+     * continues for up to the quantum, stopping before an I/O instruction so it can block the process
+     * and at the end of its time slice.
+     */
+    public int endOfQuantum() {
+        int next = currentInstruction + 1;
+        int end = (int) Math.min(instructions.size(), (long) currentInstruction + quantum);
+        if (sliceEnd > currentInstruction) {
+            end = Math.min(end, sliceEnd);
+        }
+        return Math.max(next, Math.min(end, instructions.nextIo(next)));
+    }
+
+    /**
+     * The instruction a slice starting now ends at. Every feedback level below the top doubles the slice.
+     */
+    public int nextSliceEnd() {
+        long slice = (long) timeSlice << Math.min(level, FEEDBACK_LEVELS);
+        return (int) Math.min(Integer.MAX_VALUE, currentInstruction + slice);
+    }
+
+    public int lowerLevel() {
+        return Math.min(level + 1, FEEDBACK_LEVELS - 1);
+    }
+
+    @Modifies({"status", "lastStatusChange"})
     public void setStatus(ProcessStatus status) {
         this.status = status;
-        this.lastStatusChange = System.currentTimeMillis();
+        this.lastStatusChange = clock != null ? clock.getCurrentTime() : System.currentTimeMillis();
+    }
+
+    @Modifies({"currentInstruction", "virtualRuntime"})
+    public void setCurrentInstruction(int currentInstruction) {
+        if (currentInstruction > this.currentInstruction) {
+            virtualRuntime += (currentInstruction - this.currentInstruction) * VIRTUAL_RUNTIME_SCALE / Math.max(1, priority);
+        }
+        this.currentInstruction = currentInstruction;
     }
 }
@@ -0,0 +1,202 @@
+package com.ftn.sbnz.model.models;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The processes in one status, ordered so the one the scheduler should pick next is at the head.
+ * It is an indexed binary heap: every process knows its slot, so adding, removing and re-keying a process
+ * after its priority or status change time changed are O(log n), and the head is O(1).
+ * Rules only read {@link #getHeadId()}; the heap itself is maintained outside the rules as processes change.
+ */
+public class ProcessQueue {
+
+    public static final int EMPTY = -1;
+
+    // ready processes: highest priority first, then the one that has waited longest
+    private static final Comparator<Process> READY_ORDER = Comparator
+            .comparingInt(Process::getPriority).reversed()
+            .thenComparingLong(Process::getLastStatusChange)
+            .thenComparingInt(Process::getId);
+    // the policies that take turns order equal processes by when they became ready, not by how long ago in time,
+    // because many processes change status at the same virtual time
+    private static final Comparator<Process> ROUND_ROBIN_ORDER = Comparator
+            .comparingInt(Process::getPriority).reversed()
+            .thenComparingLong(Process::getStatusSequence)
+            .thenComparingInt(Process::getId);
+    private static final Comparator<Process> FAIR_ORDER = Comparator
+            .comparingLong(Process::getVirtualRuntime)
+            .thenComparingLong(Process::getStatusSequence)
+            .thenComparingInt(Process::getId);
+    private static final Comparator<Process> FEEDBACK_ORDER = Comparator
+            .comparingInt(Process::getLevel)
+            .thenComparingLong(Process::getStatusSequence)
+            .thenComparingInt(Process::getId);
+    // running processes: lowest priority first, then the one that started last and has lost the least work
+    private static final Comparator<Process> RUNNING_ORDER = Comparator
+            .comparingInt(Process::getPriority)
+            .thenComparing(Comparator.comparingLong(Process::getLastStatusChange).reversed())
+            .thenComparingInt(Process::getId);
+
+    private final ProcessStatus status;
+    private final Comparator<Process> order;
+    private final Map<Process, Integer> slots = new IdentityHashMap<>();
+    private Process[] heap = new Process[16];
+    private int size;
+    // numbers the processes in the order they joined the queue, a queue belongs to one session
+    private long sequence;
+
+    public ProcessQueue(ProcessStatus status) {
+        this(status, status == ProcessStatus.RUNNING ? RUNNING_ORDER : READY_ORDER);
+    }
+
+    public ProcessQueue(ProcessStatus status, Comparator<Process> order) {
+        this.status = status;
+        this.order = order;
+    }
+
+    /**
+     * The ready queue of a policy, its head is the process the policy schedules next.
+     */
+    public static ProcessQueue ready(SchedulingPolicy policy) {
+        switch (policy) {
+            case ROUND_ROBIN:
+                return new ProcessQueue(ProcessStatus.READY, ROUND_ROBIN_ORDER);
+            case FAIR:
+                return new ProcessQueue(ProcessStatus.READY, FAIR_ORDER);
+            case FEEDBACK:
+                return new ProcessQueue(ProcessStatus.READY, FEEDBACK_ORDER);
+            default:
+                return new ProcessQueue(ProcessStatus.READY, READY_ORDER);
+        }
+    }
+
+    public ProcessStatus getStatus() {
+        return status;
+    }
+
+    public int getHeadId() {
+        return size > 0 ? heap[0].getId() : EMPTY;
+    }
+
+    public Process getHead() {
+        return size > 0 ? heap[0] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds, moves or removes the process depending on whether it is in the status of this queue.
+     *
+     * @return true when the head of the queue changed
+     */
+    public boolean offer(Process process) {
+        Process head = getHead();
+
+        Integer slot = slots.get(process);
+        if (process.getStatus() != status) {
+            if (slot != null) {
+                removeAt(slot);
+            }
+        } else if (slot == null) {
+            add(process);
+        } else {
+            siftUp(siftDown(slot));
+        }
+
+        return getHead() != head;
+    }
+
+    /**
+     * @return true when the head of the queue changed
+     */
+    public boolean remove(Process process) {
+        Integer slot = slots.get(process);
+        if (slot == null) {
+            return false;
+        }
+
+        Process head = getHead();
+        removeAt(slot);
+        return getHead() != head;
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        slots.clear();
+        size = 0;
+    }
+
+    private void add(Process process) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        process.setStatusSequence(++sequence);
+        place(process, size);
+        siftUp(size++);
+    }
+
+    private void removeAt(int slot) {
+        slots.remove(heap[slot]);
+        size--;
+
+        if (slot == size) {
+            heap[size] = null;
+            return;
+        }
+
+        place(heap[size], slot);
+        heap[size] = null;
+        siftUp(siftDown(slot));
+    }
+
+    private int siftUp(int slot) {
+        Process process = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (order.compare(process, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], slot);
+            slot = parent;
+        }
+        place(process, slot);
+        return slot;
+    }
+
+    private int siftDown(int slot) {
+        Process process = heap[slot];
+        int half = size / 2;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && order.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (order.compare(process, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], slot);
+            slot = child;
+        }
+        place(process, slot);
+        return slot;
+    }
+
+    private void place(Process process, int slot) {
+        heap[slot] = process;
+        slots.put(process, slot);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessQueue(status=" + status + ", size=" + size + ", headId=" + getHeadId() + ")";
+    }
+}
@@ -0,0 +1,26 @@
+package com.ftn.sbnz.listener;
+
+import com.ftn.sbnz.service.dtos.EventDto;
+import com.ftn.sbnz.service.dtos.EventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FiredRule {
+
+    public static final int NO_PROCESS = -1;
+    public static final int NO_CORE = -1;
+
+    private final EventType eventType;
+    private final int processId;
+    private final int coreId;
+
+    public EventDto toEventDto() {
+        return new EventDto(
+                processId != NO_PROCESS ? String.valueOf(processId) : null,
+                eventType,
+                coreId != NO_CORE ? coreId : null
+        );
+    }
+}
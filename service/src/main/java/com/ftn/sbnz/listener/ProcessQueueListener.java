@@ -0,0 +1,96 @@
+package com.ftn.sbnz.listener;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.model.models.ProcessQueue;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * Keeps the ready and running {@link ProcessQueue} facts of a session in step with its processes.
+ * A queue fact is only updated when its head changes, so process changes that do not affect
+ * which process is scheduled or suspended next cause no re-evaluation of the scheduling rules.
+ * <p>
+ * The queue facts are not updated from within the callbacks, which run in the middle of another propagation.
+ * A changed queue is marked and a single action is submitted, which the engine runs before it evaluates
+ * the rules again and which updates every queue marked since.
+ */
+public class ProcessQueueListener implements RuleRuntimeEventListener {
+
+    private final ProcessQueue readyQueue;
+    private final ProcessQueue runningQueue = new ProcessQueue(ProcessStatus.RUNNING);
+    private final FactHandle readyHandle;
+    private final FactHandle runningHandle;
+    private final KieSession kieSession;
+    private final KieSession.AtomicAction flush = this::flush;
+    private boolean readyChanged;
+    private boolean runningChanged;
+    private boolean flushSubmitted;
+
+    private ProcessQueueListener(KieSession kieSession, SchedulingPolicy policy) {
+        this.kieSession = kieSession;
+        this.readyQueue = ProcessQueue.ready(policy);
+        this.readyHandle = kieSession.insert(readyQueue);
+        this.runningHandle = kieSession.insert(runningQueue);
+    }
+
+    /**
+     * Inserts the queue facts into a session that has no processes yet and keeps them up to date.
+     * The ready queue is ordered the way the policy of the session's rule base picks processes.
+     */
+    public static void install(KieSession kieSession, SchedulingPolicy policy) {
+        kieSession.addEventListener(new ProcessQueueListener(kieSession, policy));
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        if (event.getObject() instanceof Process) {
+            offer((Process) event.getObject());
+        }
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        if (event.getObject() instanceof Process) {
+            offer((Process) event.getObject());
+        }
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        if (event.getOldObject() instanceof Process) {
+            Process process = (Process) event.getOldObject();
+            changed(readyQueue.remove(process), runningQueue.remove(process));
+        }
+    }
+
+    private void offer(Process process) {
+        changed(readyQueue.offer(process), runningQueue.offer(process));
+    }
+
+    private void changed(boolean ready, boolean running) {
+        readyChanged |= ready;
+        runningChanged |= running;
+        if ((ready || running) && !flushSubmitted) {
+            flushSubmitted = true;
+            kieSession.submit(flush);
+        }
+    }
+
+    private void flush(KieSession session) {
+        flushSubmitted = false;
+        if (readyChanged) {
+            readyChanged = false;
+            session.update(readyHandle, readyQueue);
+        }
+        if (runningChanged) {
+            runningChanged = false;
+            session.update(runningHandle, runningQueue);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ftn.sbnz.listener;
+
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.EventType;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.runtime.rule.Match;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the listener records about a rule, read from the rule metadata once instead of on every firing.
+ * A rule is reported when it has an {@code @eventType}, its process is the one bound to {@code $p}
+ * and its core the one bound to {@code $core}.
+ */
+final class RuleDescriptor {
+
+    private static final String EVENT_TYPE_METADATA = "eventType";
+    private static final String PROCESS_DECLARATION = "$p";
+    private static final String CORE_DECLARATION = "$core";
+
+    private static final Map<Rule, RuleDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    private final EventType eventType;
+    private final boolean bindsProcess;
+    private final boolean bindsCore;
+
+    private RuleDescriptor(EventType eventType, boolean bindsProcess, boolean bindsCore) {
+        this.eventType = eventType;
+        this.bindsProcess = bindsProcess;
+        this.bindsCore = bindsCore;
+    }
+
+    static RuleDescriptor of(Rule rule) {
+        return descriptors.computeIfAbsent(rule, RuleDescriptor::resolve);
+    }
+
+    boolean isReported() {
+        return eventType != null;
+    }
+
+    FiredRule toFiredRule(Match match) {
+        int processId = bindsProcess
+                ? ((Process) match.getDeclarationValue(PROCESS_DECLARATION)).getId()
+                : FiredRule.NO_PROCESS;
+        int coreId = bindsCore
+                ? ((CpuCore) match.getDeclarationValue(CORE_DECLARATION)).getId()
+                : FiredRule.NO_CORE;
+        return new FiredRule(eventType, processId, coreId);
+    }
+
+    private static RuleDescriptor resolve(Rule rule) {
+        Object eventType = rule.getMetaData().get(EVENT_TYPE_METADATA);
+        if (eventType == null) {
+            return new RuleDescriptor(null, false, false);
+        }
+
+        try {
+            RuleImpl ruleImpl = (RuleImpl) rule;
+            return new RuleDescriptor(
+                    EventType.valueOf(eventType.toString()),
+                    ruleImpl.getDeclaration(PROCESS_DECLARATION) != null,
+                    ruleImpl.getDeclaration(CORE_DECLARATION) != null
+            );
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Rule \"" + rule.getName() + "\" has an unknown event type " + eventType, e);
+        }
+    }
+}
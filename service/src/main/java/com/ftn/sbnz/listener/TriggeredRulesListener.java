@@ -1,43 +1,64 @@
 package com.ftn.sbnz.listener;
 
 import lombok.Getter;
-import org.apache.commons.math3.util.Pair;
-import org.kie.api.event.rule.*;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.rule.Match;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.function.Consumer;
 
-public class TriggeredRulesListener extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+/**
+ * Counts every rule firing and keeps a compact record of the ones that are reported as events.
+ * Reported rules are handed to the publisher as they fire, and only the latest {@code retained} of them are kept,
+ * none when it is zero.
+ */
+public class TriggeredRulesListener extends DefaultAgendaEventListener {
 
+    private final int retained;
+    private final Consumer<FiredRule> publisher;
+    private final Deque<FiredRule> firedRules = new ArrayDeque<>();
+
+    @Getter
+    private int rulesFired;
     @Getter
-    private List<Pair<String, List<String>>> firedRules = new ArrayList<>();
-    private Pair<String, List<String>> lastRuleFired;
+    private long reportedEvents;
 
-    @Override
-    public void beforeMatchFired(BeforeMatchFiredEvent event) {
-        String ruleName = event.getMatch().getRule().getName();
-        System.out.println("Rule fired: " + ruleName);
-        lastRuleFired = new Pair<>(ruleName, new ArrayList<>());
+    public TriggeredRulesListener() {
+        this(Integer.MAX_VALUE, firedRule -> {});
     }
 
-    @Override
-    public void afterMatchFired(AfterMatchFiredEvent event) {
-        firedRules.add(lastRuleFired);
+    public TriggeredRulesListener(int retained, Consumer<FiredRule> publisher) {
+        this.retained = retained;
+        this.publisher = publisher;
     }
 
-    @Override
-    public void objectInserted(ObjectInsertedEvent event) {
+    public Collection<FiredRule> getFiredRules() {
+        return firedRules;
     }
 
     @Override
-    public void objectUpdated(ObjectUpdatedEvent event) {
-        Object eventObject = event.getObject();
-        System.out.println("Fact updated: " + eventObject);
-        lastRuleFired.getValue().add(eventObject.toString());
-    }
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        rulesFired++;
 
-    @Override
-    public void objectDeleted(ObjectDeletedEvent objectDeletedEvent) {
+        Match match = event.getMatch();
+        RuleDescriptor rule = RuleDescriptor.of(match.getRule());
+        if (!rule.isReported()) {
+            return;
+        }
+
+        FiredRule firedRule = rule.toFiredRule(match);
+        reportedEvents++;
+        publisher.accept(firedRule);
 
+        if (retained == 0) {
+            return;
+        }
+        if (firedRules.size() == retained) {
+            firedRules.removeFirst();
+        }
+        firedRules.addLast(firedRule);
     }
 }
@@ -0,0 +1,134 @@
+package com.ftn.sbnz.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftn.sbnz.service.dtos.EventBatchDto;
+import com.ftn.sbnz.service.jobs.JobNotFoundException;
+import com.ftn.sbnz.service.jobs.SchedulingJob;
+import com.ftn.sbnz.service.jobs.SchedulingJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-job channel at {@code /jobs/{jobId}/events}, streaming the events of a job as batches while it runs.
+ * The channel is closed after the last batch of the job. A client that falls behind loses its oldest batches,
+ * which shows up as a gap in the batch sequence numbers. A channel to an unknown job is closed right away,
+ * and one to a job that publishes no more batches gets its last batch, if it streamed one, and is closed.
+ */
+@Component
+public class JobEventsWsHandler extends TextWebSocketHandler {
+
+    public static final String PATH = "/jobs/*/events";
+    private static final UriTemplate PATH_TEMPLATE = new UriTemplate("/jobs/{jobId}/events");
+
+    private static final Logger log = LoggerFactory.getLogger(JobEventsWsHandler.class);
+
+    private final ObjectMapper objectMapper;
+    private final WebSocketSender sender;
+    private final SchedulingJobService jobService;
+    private final Map<String, Set<WebSocketSession>> subscribers = new ConcurrentHashMap<>();
+
+    // the job service publishes through this handler, so it is looked up lazily
+    @Autowired
+    public JobEventsWsHandler(ObjectMapper objectMapper, WebSocketSender sender, @Lazy SchedulingJobService jobService) {
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.jobService = jobService;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        String jobId = jobId(session);
+        sender.register(session);
+
+        SchedulingJob job;
+        try {
+            job = jobService.get(jobId);
+        } catch (JobNotFoundException e) {
+            log.info("Session {} asked for unknown job {}", session.getId(), jobId);
+            sender.close(session, CloseStatus.POLICY_VIOLATION.withReason("Unknown job"));
+            return;
+        }
+
+        // the final batch removes the subscribers under the same lock, so a session either gets it from publish
+        // or sees here that the job already published it
+        boolean[] subscribed = new boolean[1];
+        subscribers.compute(jobId, (id, sessions) -> {
+            if (job.isStreamClosed()) {
+                return sessions;
+            }
+            Set<WebSocketSession> subscribedSessions = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            subscribedSessions.add(session);
+            subscribed[0] = true;
+            return subscribedSessions;
+        });
+
+        if (subscribed[0]) {
+            log.info("Session {} subscribed to job {}", session.getId(), jobId);
+            return;
+        }
+        log.info("Session {} subscribed to job {} after its last batch", session.getId(), jobId);
+        if (job.getLastBatch() != null) {
+            TextMessage message = serialize(job.getLastBatch());
+            if (message != null) {
+                sender.send(session, message);
+            }
+        }
+        sender.close(session, CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Set<WebSocketSession> sessions = subscribers.get(jobId(session));
+        if (sessions != null) {
+            sessions.remove(session);
+        }
+        sender.unregister(session);
+    }
+
+    public void publish(EventBatchDto batch) {
+        Set<WebSocketSession> sessions = batch.isLast()
+                ? subscribers.remove(batch.getJobId())
+                : subscribers.get(batch.getJobId());
+        if (sessions == null || sessions.isEmpty()) {
+            return;
+        }
+
+        TextMessage message = serialize(batch);
+        if (message == null) {
+            return;
+        }
+
+        for (WebSocketSession session : sessions) {
+            sender.send(session, message);
+            if (batch.isLast()) {
+                sender.close(session, CloseStatus.NORMAL);
+            }
+        }
+    }
+
+    private TextMessage serialize(EventBatchDto batch) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(batch));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize events of job {}: {}", batch.getJobId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String jobId(WebSocketSession session) {
+        return PATH_TEMPLATE.match(session.getUri().getPath()).get("jobId");
+    }
+}
@@ -0,0 +1,66 @@
+package com.ftn.sbnz.service;
+
+import com.ftn.sbnz.service.dtos.RecordingDto;
+import com.ftn.sbnz.service.recording.FlightRecordings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Starts, downloads and stops flight recordings. A dump holds the environment, system properties and command line
+ * of the JVM, so the endpoint is only there when {@code scheduler.recordings.enabled} is set.
+ */
+@RestController
+@RequestMapping("/recordings")
+@ConditionalOnProperty(name = "scheduler.recordings.enabled", havingValue = "true")
+public class RecordingController {
+
+    private final FlightRecordings flightRecordings;
+
+    @Autowired
+    public RecordingController(FlightRecordings flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @PostMapping
+    public RecordingDto start(@RequestParam(defaultValue = "default") String settings,
+                              @RequestParam(required = false) Long maxAgeSeconds) {
+        return flightRecordings.start(settings, maxAgeSeconds);
+    }
+
+    @GetMapping
+    public List<RecordingDto> list() {
+        return flightRecordings.list();
+    }
+
+    // the dump is copied from its file to the response and deleted after, it can be far larger than the heap allows
+    @GetMapping("/{recordingId}")
+    public ResponseEntity<StreamingResponseBody> dump(@PathVariable long recordingId) {
+        Path dump = flightRecordings.dump(recordingId);
+        StreamingResponseBody body = output -> {
+            try {
+                Files.copy(dump, output);
+            } finally {
+                FlightRecordings.delete(dump);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recording-" + recordingId + ".jfr\"")
+                .body(body);
+    }
+
+    @DeleteMapping("/{recordingId}")
+    public RecordingDto stop(@PathVariable long recordingId) {
+        return flightRecordings.stop(recordingId);
+    }
+}
@@ -1,7 +1,11 @@
 package com.ftn.sbnz.service;
 
 import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.SessionPoolMetricsDto;
 import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.dtos.WebSocketMetricsDto;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,15 +18,31 @@ public class SampleAppController {
     private static final Logger log = LoggerFactory.getLogger(SampleAppController.class);
 
     private final SampleAppService sampleService;
+    private final KieSessionPool sessionPool;
+    private final WebSocketSender webSocketSender;
 
     @Autowired
-    public SampleAppController(SampleAppService sampleService) {
+    public SampleAppController(SampleAppService sampleService, KieSessionPool sessionPool, WebSocketSender webSocketSender) {
         this.sampleService = sampleService;
+        this.sessionPool = sessionPool;
+        this.webSocketSender = webSocketSender;
     }
 
     @PostMapping("/schedule")
+    @Timed(value = "scheduler.schedule", description = "Time to run a simulation requested through /schedule",
+            percentiles = {0.5, 0.95, 0.99})
     public EventListDto schedule(@RequestBody SystemStateDto systemState) {
         log.info("Received system state: {}", systemState);
         return sampleService.runSystem(systemState);
     }
+
+    @GetMapping("/pool")
+    public SessionPoolMetricsDto poolMetrics() {
+        return sessionPool.getMetrics();
+    }
+
+    @GetMapping("/websocket")
+    public WebSocketMetricsDto webSocketMetrics() {
+        return webSocketSender.getMetrics();
+    }
 }
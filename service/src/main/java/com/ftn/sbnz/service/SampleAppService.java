@@ -1,173 +1,190 @@
 package com.ftn.sbnz.service;
 
+import com.ftn.sbnz.listener.FiredRule;
 import com.ftn.sbnz.listener.TriggeredRulesListener;
-import com.ftn.sbnz.model.events.CpuTemperatureEvent;
-import com.ftn.sbnz.model.events.IOEvent;
-import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.Process;
 import com.ftn.sbnz.service.dtos.*;
-import com.ftn.sbnz.utils.DroolsUtil;
-import org.apache.commons.math3.util.Pair;
-import org.kie.api.event.rule.AgendaEventListener;
-import org.kie.api.event.rule.RuleRuntimeEventListener;
+import com.ftn.sbnz.service.jobs.SimulationControl;
+import com.ftn.sbnz.service.metrics.RuleEngineMetrics;
+import com.ftn.sbnz.service.metrics.SessionMetricsListener;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import com.ftn.sbnz.service.simulation.EventGenerator;
+import com.ftn.sbnz.service.simulation.EventStream;
+import com.ftn.sbnz.service.simulation.SimulationFacts;
+import com.ftn.sbnz.service.statistics.SchedulingStatistics;
+import com.ftn.sbnz.service.trace.TraceLog;
+import com.ftn.sbnz.service.trace.TraceWriter;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionPseudoClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 public class SampleAppService {
 
     private final WsHandler wsHandler;
-    private float startingTemp = 50;
-    private Random random = new Random();
+    private final KieSessionPool sessionPool;
+    private final ScheduledExecutorService eventScheduler;
+    private final RuleEngineMetrics ruleEngineMetrics;
+    private final TraceLog traceLog;
+    private final long maxVirtualTimeMillis;
 
     @Autowired
-    public SampleAppService(WsHandler wsHandler) {
+    public SampleAppService(WsHandler wsHandler, KieSessionPool sessionPool, ScheduledExecutorService eventScheduler,
+                            RuleEngineMetrics ruleEngineMetrics, TraceLog traceLog,
+                            @Value("${scheduler.fast-forward.max-virtual-time-ms:3600000}") long maxVirtualTimeMillis) {
         this.wsHandler = wsHandler;
+        this.sessionPool = sessionPool;
+        this.eventScheduler = eventScheduler;
+        this.ruleEngineMetrics = ruleEngineMetrics;
+        this.traceLog = traceLog;
+        this.maxVirtualTimeMillis = maxVirtualTimeMillis;
     }
 
     private static final Logger log = LoggerFactory.getLogger(SampleAppService.class);
 
     public EventListDto runSystem(SystemStateDto systemState) {
-        TriggeredRulesListener rulesListener = new TriggeredRulesListener();
-
-        KieSession kieSession = DroolsUtil.getSession();
-
-        kieSession.addEventListener((AgendaEventListener) rulesListener);
-        kieSession.addEventListener((RuleRuntimeEventListener) rulesListener);
-
-        kieSession.insert(systemState.getSystemStateModel());
-        systemState.getCpuCoreModels().forEach(kieSession::insert);
-        systemState.getProcessModels().forEach(kieSession::insert);
-
-        List<Thread> ioThreads = systemState.getProcesses().stream()
-                .filter(processDto -> !processDto.getIoInstructions().isEmpty())
-                .map(processDtoWithIo -> new Thread(() -> {
-                    while (true) {
-                        kieSession.insert(new IOEvent(Integer.parseInt(processDtoWithIo.getId())));
-                        try {
-                            Thread.sleep(1500);
-                        } catch (InterruptedException ignored) {
-                            break;
-                        }
-                    }
-                }))
-                .collect(Collectors.toList());
-
-        List<Thread> pageFaultThreads = systemState.getProcesses().stream()
-                .map(processDto -> new Thread(() -> {
-                    while(true) {
-                        if (Math.random() < 0.2) {
-                            kieSession.insert(new PageFaultEvent(Integer.parseInt(processDto.getId())));
-                        }
-
-                        try {
-                            Thread.sleep(1000);
-                        } catch (InterruptedException ignored) {
-                            break;
-                        }
-                    }
-                }))
-                .collect(Collectors.toList());
-
-        Thread temperatureThread = new Thread(() -> {
-            while(true) {
-                float change = (random.nextFloat() - 0.5f) * 4.0f;
-                startingTemp += change;
-                startingTemp = Math.max(20.0f, Math.min(130.0f, startingTemp));
-
-                CpuTemperatureEvent lastEvent = new CpuTemperatureEvent(startingTemp);
-                kieSession.insert(lastEvent);
-
-                try {
-                    wsHandler.sendToAll(String.valueOf(lastEvent.getTemperature()));
-                    log.info("Sending temperature event: " + lastEvent.getTemperature());
-                } catch (IOException e) {
-                    log.error("Error sending temperature event to websocket: " + e.getMessage());
-                }
+        return runSystem(systemState, new SimulationControl());
+    }
 
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ignored) {
-                    break;
-                }
-            }
-        });
+    public EventListDto runSystem(SystemStateDto systemState, SimulationControl control) {
+        return runSystem(systemState, control, null);
+    }
 
-        temperatureThread.start();
-        ioThreads.forEach(Thread::start);
-        pageFaultThreads.forEach(Thread::start);
+    /**
+     * @param stream receives the events as they fire, only its tail of events is returned when it is given
+     */
+    public EventListDto runSystem(SystemStateDto systemState, SimulationControl control, EventStream stream) {
+        TriggeredRulesListener rulesListener = stream != null
+                ? new TriggeredRulesListener(stream.getTailSize(), stream::publish)
+                : new TriggeredRulesListener();
 
-        kieSession.fireUntilHalt();
-        kieSession.dispose();
+        return run(systemState, control, rulesListener, sessionPool, true);
+    }
 
-        temperatureThread.interrupt();
-        ioThreads.forEach(Thread::interrupt);
-        pageFaultThreads.forEach(Thread::interrupt);
+    /**
+     * Runs one scenario of a parameter sweep on a session of the given pool. The scenario is not traced and
+     * its events are only handed to the publisher, the result holds none of them.
+     */
+    public EventListDto runScenario(SystemStateDto systemState, KieSessionPool pool, Consumer<FiredRule> publisher) {
+        return run(systemState, new SimulationControl(), new TriggeredRulesListener(0, publisher), pool, false);
+    }
 
-        return processTriggeredRules(rulesListener.getFiredRules());
+    private EventListDto run(SystemStateDto systemState, SimulationControl control, TriggeredRulesListener rulesListener,
+                             KieSessionPool pool, boolean traced) {
+        boolean fastForward = systemState.getMode() == SimulationMode.FAST_FORWARD;
+        long seed = systemState.getSeed() != null ? systemState.getSeed() : ThreadLocalRandom.current().nextLong();
+        // a request the process models cannot be built from fails here, before it holds a session
+        List<Process> processes = systemState.getProcessModels();
+
+        KieSession kieSession = pool.borrow(systemState.getPolicy());
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        TraceWriter trace = null;
+        SessionMetricsListener metricsListener = null;
+        EventGenerator eventGenerator = null;
+        SchedulingStatistics statistics;
+        long virtualTime;
+
+        // everything after the borrow runs inside the try, the session has to go back to the pool whatever fails
+        try {
+            // opening a trace writes to disk, it fails like anything else that runs on the borrowed session
+            trace = traced ? traceLog.open(kieSession, systemState) : null;
+            kieSession.addEventListener(rulesListener);
+            metricsListener = ruleEngineMetrics.attach(kieSession);
+            statistics = SchedulingStatistics.attach(kieSession);
+
+            SimulationFacts.insert(kieSession, systemState, processes);
+
+            // temperature frames are not streamed in fast-forward mode, they would arrive faster than a client can show them
+            eventGenerator = new EventGenerator(kieSession, processes, new Random(seed),
+                    fastForward ? temperature -> {} : this::sendTemperature);
+
+            if (control.attach(kieSession)) {
+                if (fastForward) {
+                    fastForward(kieSession, eventGenerator, processes, control);
+                } else {
+                    eventGenerator.start(eventScheduler);
+                    kieSession.fireUntilHalt();
+                }
+            }
+        } finally {
+            control.detach();
+            // generators must be stopped before the session is reset and handed to another request
+            if (eventGenerator != null) {
+                eventGenerator.stop();
+            }
+            virtualTime = clock.getCurrentTime();
+            if (metricsListener != null) {
+                metricsListener.detach();
+            }
+            pool.release(kieSession);
+            // the trace listener went with the reset, nothing writes to the trace any more
+            if (trace != null) {
+                trace.close();
+            }
+        }
+
+        EventListDto eventList = processTriggeredRules(rulesListener);
+        eventList.setSeed(seed);
+        eventList.setVirtualTime(virtualTime);
+        eventList.setStatistics(statistics.summarize(virtualTime));
+        eventList.setTraceId(trace != null ? trace.getId() : null);
+        return eventList;
     }
 
-    private EventListDto processTriggeredRules(List<Pair<String, List<String>>> triggeredRules) {
-        EventListDto eventListDto = new EventListDto();
-        List<EventDto> eventDtos = new ArrayList<>();
-
-        for (Pair<String, List<String>> triggeredRule : triggeredRules) {
-            EventDto eventDto = new EventDto();
-
-            if (triggeredRule.getFirst().contains("Make process ready")) {
-                eventDto.setEventType(EventType.PROCESS_READY);
-            } else if (triggeredRule.getFirst().contains("Schedule process")) {
-                eventDto.setEventType(EventType.PROCESS_SCHEDULED);
-            } else if (triggeredRule.getFirst().contains("Finish executing the process")) {
-                eventDto.setEventType(EventType.PROCESS_FINISHED);
-            } else if (triggeredRule.getFirst().contains("Stop system")) {
-                eventDto.setEventType(EventType.END);
-            } else if (triggeredRule.getFirst().contains("Block process on I/O")) {
-                eventDto.setEventType(EventType.PROCESS_BLOCKED);
-            } else if (triggeredRule.getFirst().contains("Preempt when there is a process")) {
-                eventDto.setEventType(EventType.PREEMPTED);
-            } else if (triggeredRule.getFirst().contains("Handle I/O events")) {
-                eventDto.setEventType(EventType.IO_RECEIVED);
-            } else if (triggeredRule.getFirst().contains("Handle page fault")) {
-                eventDto.setEventType(EventType.PAGING);
-            } else if (triggeredRule.getFirst().contains("Detect CPU overheating")) {
-                eventDto.setEventType(EventType.CPU_DISABLED);
-            } else if (triggeredRule.getFirst().contains("Enable CPU")) {
-                eventDto.setEventType(EventType.CPU_ENABLED);
-            } else if (triggeredRule.getFirst().contains("CPU thrashing")) {
-                eventDto.setEventType(EventType.THRASHING);
-            } else if (triggeredRule.getFirst().contains("Suspend lowest priority process")) {
-                eventDto.setEventType(EventType.PROCESS_SUSPENDED);
-            } else if (triggeredRule.getFirst().contains("Handle suspended process")) {
-                eventDto.setEventType(EventType.PROCESS_RESUMED);
-            } else {
-                continue;
+    /**
+     * Runs the simulation in virtual time: at every tick the due events are inserted, the rules fired
+     * and the pseudo clock moved on, so nothing waits on the wall clock.
+     */
+    private void fastForward(KieSession kieSession, EventGenerator eventGenerator, List<Process> processes,
+                             SimulationControl control) {
+        SessionPseudoClock clock = kieSession.getSessionClock();
+
+        for (long virtualTime = 0; virtualTime <= maxVirtualTimeMillis; virtualTime += EventGenerator.TICK_MILLIS) {
+            eventGenerator.emitDue(virtualTime);
+            kieSession.fireAllRules();
+
+            if (control.isCancelled() || allFinished(processes)) {
+                return;
             }
+            clock.advanceTime(EventGenerator.TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
 
-            eventDto.setProcessId(triggeredRule.getSecond().stream().filter(fact -> fact.startsWith("Process")).map(pFact -> {
-                        String startMarker = "Process(id=";
+        log.warn("Fast-forward simulation stopped after {} ms of virtual time", maxVirtualTimeMillis);
+    }
 
-                        int startIndex = pFact.indexOf("Process(id=");
-                        startIndex += startMarker.length();
+    private static boolean allFinished(List<Process> processes) {
+        return processes.stream().allMatch(process -> process.getStatus() == ProcessStatus.EXIT);
+    }
 
-                        int endIndex = pFact.indexOf(", ", startIndex);
-                        return pFact.substring(startIndex, endIndex);
-                    }
-            ).findFirst().orElse(null));
+    private void sendTemperature(float temperature) {
+        wsHandler.sendLatestToAll(String.valueOf(temperature));
+        log.debug("Sending temperature event: {}", temperature);
+    }
+
+    private EventListDto processTriggeredRules(TriggeredRulesListener rulesListener) {
+        EventListDto eventListDto = new EventListDto();
+        List<EventDto> eventDtos = new ArrayList<>(rulesListener.getFiredRules().size());
 
-            eventDtos.add(eventDto);
+        for (FiredRule firedRule : rulesListener.getFiredRules()) {
+            eventDtos.add(firedRule.toEventDto());
         }
 
         eventListDto.setEvents(eventDtos);
-        eventListDto.setRulesFired(triggeredRules.size());
+        eventListDto.setRulesFired(rulesListener.getRulesFired());
+        eventListDto.setTotalEvents(rulesListener.getReportedEvents());
 
         return eventListDto;
     }
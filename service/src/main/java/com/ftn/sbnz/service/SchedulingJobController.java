@@ -0,0 +1,37 @@
+package com.ftn.sbnz.service;
+
+import com.ftn.sbnz.service.dtos.JobDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.jobs.SchedulingJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class SchedulingJobController {
+
+    private final SchedulingJobService jobService;
+
+    @Autowired
+    public SchedulingJobController(SchedulingJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobDto submit(@RequestBody SystemStateDto systemState) {
+        return jobService.submit(systemState).toDto();
+    }
+
+    @GetMapping("/{jobId}")
+    public JobDto get(@PathVariable String jobId) {
+        return jobService.get(jobId).toDto();
+    }
+
+    @DeleteMapping("/{jobId}")
+    public JobDto cancel(@PathVariable String jobId) {
+        return jobService.cancel(jobId).toDto();
+    }
+}
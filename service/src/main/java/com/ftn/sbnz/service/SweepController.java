@@ -0,0 +1,25 @@
+package com.ftn.sbnz.service;
+
+import com.ftn.sbnz.service.dtos.SweepRequestDto;
+import com.ftn.sbnz.service.dtos.SweepResultDto;
+import com.ftn.sbnz.service.sweep.ParameterSweepService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/sweeps")
+@CrossOrigin(origins = "http://localhost:5173")
+public class SweepController {
+
+    private final ParameterSweepService sweepService;
+
+    @Autowired
+    public SweepController(ParameterSweepService sweepService) {
+        this.sweepService = sweepService;
+    }
+
+    @PostMapping
+    public SweepResultDto sweep(@RequestBody SweepRequestDto request) {
+        return sweepService.run(request);
+    }
+}
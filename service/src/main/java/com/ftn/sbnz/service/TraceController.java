@@ -0,0 +1,39 @@
+package com.ftn.sbnz.service;
+
+import com.ftn.sbnz.service.dtos.ReplayDto;
+import com.ftn.sbnz.service.dtos.TracePageDto;
+import com.ftn.sbnz.service.trace.TraceLog;
+import com.ftn.sbnz.service.trace.TraceReplayer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/traces")
+public class TraceController {
+
+    private final TraceLog traceLog;
+    private final TraceReplayer traceReplayer;
+
+    @Autowired
+    public TraceController(TraceLog traceLog, TraceReplayer traceReplayer) {
+        this.traceLog = traceLog;
+        this.traceReplayer = traceReplayer;
+    }
+
+    @GetMapping("/{traceId}")
+    public TracePageDto read(@PathVariable String traceId,
+                             @RequestParam(defaultValue = "0") long offset,
+                             @RequestParam(defaultValue = "1000") int limit) {
+        return traceLog.read(traceId, offset, limit);
+    }
+
+    @PostMapping("/{traceId}/replay")
+    public ReplayDto replay(@PathVariable String traceId) {
+        return traceReplayer.replay(traceId);
+    }
+}
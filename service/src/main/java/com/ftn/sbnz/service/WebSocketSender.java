@@ -0,0 +1,235 @@
+package com.ftn.sbnz.service;
+
+import com.ftn.sbnz.service.dtos.WebSocketMetricsDto;
+import com.ftn.sbnz.tracing.WebSocketSendEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends WebSocket frames from dedicated sender threads, so producers such as the event generators never block
+ * on a client. Every session has a bounded outbox: when it is full the oldest frame is dropped, and a frame sent
+ * with {@link #sendLatest} replaces the previous one that was not sent yet.
+ */
+@Component
+public class WebSocketSender {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketSender.class);
+
+    private final int queueCapacity;
+    private final ExecutorService sender;
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public WebSocketSender(@Value("${scheduler.websocket.sender-threads:2}") int threads,
+                           @Value("${scheduler.websocket.queue-capacity:64}") int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "websocket-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void register(WebSocketSession session) {
+        outboxes.put(session.getId(), new Outbox(session));
+    }
+
+    public void unregister(WebSocketSession session) {
+        outboxes.remove(session.getId());
+    }
+
+    public void send(WebSocketSession session, TextMessage message) {
+        Outbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.offer(message);
+        }
+    }
+
+    /**
+     * Sends a frame that only matters until the next one, like a temperature reading.
+     */
+    public void sendLatest(WebSocketSession session, TextMessage message) {
+        Outbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.offerLatest(message);
+        }
+    }
+
+    /**
+     * Closes the session once the frames queued before this call have been sent.
+     */
+    public void close(WebSocketSession session, CloseStatus status) {
+        Outbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.close(status);
+        }
+    }
+
+    public WebSocketMetricsDto getMetrics() {
+        int queued = 0;
+        int maxDepth = 0;
+        for (Outbox outbox : outboxes.values()) {
+            int depth = outbox.depth();
+            queued += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        return new WebSocketMetricsDto(
+                outboxes.size(),
+                queueCapacity,
+                queued,
+                maxDepth,
+                sent.get(),
+                dropped.get(),
+                coalesced.get(),
+                failed.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        outboxes.clear();
+    }
+
+    private final class Outbox implements Runnable {
+
+        private final WebSocketSession session;
+        private final Deque<TextMessage> frames = new ArrayDeque<>();
+        private TextMessage latest;
+        private CloseStatus closeStatus;
+        private long droppedFrames;
+        // at most one sender thread drains an outbox, which keeps its frames in order
+        private boolean draining;
+
+        private Outbox(WebSocketSession session) {
+            this.session = session;
+        }
+
+        synchronized void offer(TextMessage message) {
+            if (frames.size() == queueCapacity) {
+                frames.removeFirst();
+                dropped.incrementAndGet();
+                if (droppedFrames++ == 0) {
+                    log.warn("Session {} is not keeping up, dropping its oldest frames", session.getId());
+                }
+            }
+            frames.addLast(message);
+            schedule();
+        }
+
+        synchronized void offerLatest(TextMessage message) {
+            if (latest != null) {
+                coalesced.incrementAndGet();
+            }
+            latest = message;
+            schedule();
+        }
+
+        synchronized void close(CloseStatus status) {
+            closeStatus = status;
+            schedule();
+        }
+
+        synchronized int depth() {
+            return frames.size() + (latest != null ? 1 : 0);
+        }
+
+        private void schedule() {
+            if (draining) {
+                return;
+            }
+
+            try {
+                sender.execute(this);
+                draining = true;
+            } catch (RejectedExecutionException e) {
+                log.debug("Sender is shut down, frame for session {} is discarded", session.getId());
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                TextMessage message;
+                CloseStatus status = null;
+
+                synchronized (this) {
+                    message = frames.pollFirst();
+                    if (message == null) {
+                        message = latest;
+                        latest = null;
+                    }
+                    if (message == null) {
+                        status = closeStatus;
+                        closeStatus = null;
+                        draining = false;
+                    }
+                }
+
+                if (message == null) {
+                    if (status != null) {
+                        closeSession(status);
+                    }
+                    return;
+                }
+                deliver(message);
+            }
+        }
+
+        private void deliver(TextMessage message) {
+            WebSocketSendEvent sendEvent = new WebSocketSendEvent();
+            sendEvent.begin();
+
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                    sent.incrementAndGet();
+                    sendEvent.sent = true;
+                }
+            } catch (IOException | IllegalStateException e) {
+                failed.incrementAndGet();
+                log.debug("Error sending to session {}: {}", session.getId(), e.getMessage());
+            }
+
+            if (sendEvent.shouldCommit()) {
+                sendEvent.sessionId = session.getId();
+                sendEvent.bytes = message.getPayloadLength();
+                sendEvent.commit();
+            }
+        }
+
+        private void closeSession(CloseStatus status) {
+            try {
+                session.close(status);
+            } catch (IOException e) {
+                log.debug("Error closing session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+}
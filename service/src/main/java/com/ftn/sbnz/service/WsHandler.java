@@ -2,13 +2,13 @@ package com.ftn.sbnz.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -16,11 +16,18 @@ import java.util.concurrent.ConcurrentHashMap;
 public class WsHandler extends TextWebSocketHandler {
 
     private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    private final WebSocketSender sender;
     private static final Logger log = LoggerFactory.getLogger(WsHandler.class);
 
+    @Autowired
+    public WsHandler(WebSocketSender sender) {
+        this.sender = sender;
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         log.info("New session established: {}", session.getId());
+        sender.register(session);
         sessions.add(session);
     }
 
@@ -34,14 +41,17 @@ public class WsHandler extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         log.info("Session closed: {}", session.getId());
         sessions.remove(session);
+        sender.unregister(session);
     }
 
-    public void sendToAll(String message) throws IOException {
+    /**
+     * Queues the message for every session without waiting for the clients.
+     * A session that has not received the previous message yet only gets this one.
+     */
+    public void sendLatestToAll(String message) {
+        TextMessage textMessage = new TextMessage(message);
         for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                log.info("Sending message to session: {}", session.getId());
-                session.sendMessage(new TextMessage(message));
-            }
+            sender.sendLatest(session, textMessage);
         }
     }
 }
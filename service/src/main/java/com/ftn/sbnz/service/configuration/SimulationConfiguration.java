@@ -0,0 +1,26 @@
+package com.ftn.sbnz.service.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class SimulationConfiguration {
+
+    /**
+     * Shared by the event generators of all running simulations.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService eventScheduler(@Value("${scheduler.events.threads:2}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "event-generator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.ftn.sbnz.service.configuration;
 
+import com.ftn.sbnz.service.JobEventsWsHandler;
 import com.ftn.sbnz.service.WsHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -10,15 +11,19 @@ import org.springframework.web.socket.config.annotation.*;
 public class WebSocketConfiguration implements WebSocketConfigurer {
 
     private final WsHandler wsHandler;
+    private final JobEventsWsHandler jobEventsHandler;
 
     @Autowired
-    public WebSocketConfiguration(WsHandler wsHandler) {
+    public WebSocketConfiguration(WsHandler wsHandler, JobEventsWsHandler jobEventsHandler) {
         this.wsHandler = wsHandler;
+        this.jobEventsHandler = jobEventsHandler;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(wsHandler, "/temperature")
                 .setAllowedOrigins("*");
+        registry.addHandler(jobEventsHandler, JobEventsWsHandler.PATH)
+                .setAllowedOrigins("*");
     }
 }
@@ -0,0 +1,19 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoreStatisticsDto {
+
+    private int coreId;
+    private long busyTime;
+    private long pagingTime;
+    // processes the core picked up
+    private int dispatches;
+    // busy and paging time over the virtual time of the run
+    private double utilization;
+}
@@ -0,0 +1,21 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Percentiles of a per-process value in virtual milliseconds, all zero when no process has the value.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DistributionDto {
+
+    private int count;
+    private double mean;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+}
@@ -0,0 +1,19 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventBatchDto {
+
+    private String jobId;
+    private long sequence;
+    private List<EventDto> events;
+    // set on the final frame of a job, after which the channel is closed
+    private boolean last;
+}
@@ -11,4 +11,6 @@ public class EventDto {
 
     private String processId;
     private EventType eventType;
+    // the core the event happened on, missing for events that do not involve a core
+    private Integer coreId;
 }
@@ -9,4 +9,12 @@ public class EventListDto {
 
     private int rulesFired;
     private List<EventDto> events;
+    // number of reported events, larger than the size of events when only a tail was kept
+    private long totalEvents;
+    private long seed;
+    private long virtualTime;
+    // the rule firings of the run can be read back from /traces/{traceId}
+    private String traceId;
+    // accumulated while the rules fired, so it covers every event even when only a tail of them is kept
+    private SchedulingStatisticsDto statistics;
 }
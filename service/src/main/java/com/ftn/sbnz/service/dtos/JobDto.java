@@ -0,0 +1,21 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobDto {
+
+    private String id;
+    private JobStatus status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private EventListDto result;
+}
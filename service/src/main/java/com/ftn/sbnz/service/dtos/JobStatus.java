@@ -0,0 +1,9 @@
+package com.ftn.sbnz.service.dtos;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -1,10 +1,9 @@
 package com.ftn.sbnz.service.dtos;
 
-import com.ftn.sbnz.model.enums.InstructionType;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ftn.sbnz.model.models.InstructionStream;
 import lombok.Data;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -17,17 +16,9 @@ public class ProcessDto {
     private int priority;
     private int safeMemoryLimit;
 
-    public List<InstructionType> getInstructionTypes() {
-        List<InstructionType> instructionTypes = new ArrayList<>();
-
-        for (int i = 0; i < instructions; i++) {
-            if (ioInstructions.contains(i + 1)) {
-                instructionTypes.add(InstructionType.IO);
-            } else {
-                instructionTypes.add(InstructionType.REGULAR);
-            }
-        }
-
-        return instructionTypes;
+    // I/O instruction numbers start at one, the offsets of the stream at zero
+    @JsonIgnore
+    public InstructionStream getInstructionStream() {
+        return InstructionStream.of(instructions, ioInstructions.stream().mapToInt(number -> number - 1).toArray());
     }
 }
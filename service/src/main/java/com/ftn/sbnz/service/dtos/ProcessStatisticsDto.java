@@ -0,0 +1,28 @@
+package com.ftn.sbnz.service.dtos;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessStatisticsDto {
+
+    private String processId;
+    // virtual milliseconds spent in every status the process was in, from its arrival to the end of the run
+    private Map<ProcessStatus, Long> timeInStatus;
+    // times the process was put on a core
+    private int contextSwitches;
+    // times the process lost its core while it could still run, blocking on I/O is not a preemption
+    private int preemptions;
+    // times the core of the process started paging for it, page faults the rules ignored are not counted
+    private int pageFaults;
+    // from arrival to the first time on a core, missing when the process never ran
+    private Long response;
+    // from arrival to exit, missing when the process did not finish
+    private Long turnaround;
+}
@@ -0,0 +1,19 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecordingDto {
+
+    private long id;
+    private String name;
+    private String state;
+    private Instant startedAt;
+    private long maxAgeSeconds;
+}
@@ -0,0 +1,25 @@
+package com.ftn.sbnz.service.dtos;
+
+import com.ftn.sbnz.service.trace.TraceRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplayDto {
+
+    private String traceId;
+    // the firings of the replay, readable from /traces/{replayTraceId} like any other trace
+    private String replayTraceId;
+    private long recordedFirings;
+    private long replayedFirings;
+    private boolean matching;
+    // index of the first firing that differs, with the recorded and the replayed firing there, null when matching
+    private Long divergedAt;
+    private TraceRecord recorded;
+    private TraceRecord replayed;
+    private long virtualTime;
+    private double wallTimeMillis;
+}
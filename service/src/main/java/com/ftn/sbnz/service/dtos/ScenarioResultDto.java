@@ -0,0 +1,26 @@
+package com.ftn.sbnz.service.dtos;
+
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScenarioResultDto {
+
+    private SchedulingPolicy policy;
+    private int cpuCores;
+    private int totalMemory;
+    private int quantum;
+    private long seed;
+    private int rulesFired;
+    private long events;
+    private int finishedProcesses;
+    // virtual time the scenario took to finish every process, or to reach the fast-forward limit
+    private long virtualTime;
+    private DistributionDto turnaround;
+    private double utilization;
+    private double wallTimeMillis;
+}
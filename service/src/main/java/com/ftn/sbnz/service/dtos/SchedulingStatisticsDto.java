@@ -0,0 +1,28 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a run, all times in virtual milliseconds.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SchedulingStatisticsDto {
+
+    private List<ProcessStatisticsDto> processes;
+    private List<CoreStatisticsDto> cores;
+    private long contextSwitches;
+    private long preemptions;
+    private long pageFaults;
+    private DistributionDto turnaround;
+    // time spent ready to run without a core
+    private DistributionDto waiting;
+    private DistributionDto response;
+    // busy and paging time of all cores over the core time of the run
+    private double utilization;
+}
@@ -0,0 +1,19 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionPoolMetricsDto {
+
+    private int size;
+    private int inUse;
+    private int idle;
+    private long borrowed;
+    private long rejected;
+    private double averageBorrowWaitMillis;
+    private double maxBorrowWaitMillis;
+}
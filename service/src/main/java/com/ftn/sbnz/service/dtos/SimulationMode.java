@@ -0,0 +1,8 @@
+package com.ftn.sbnz.service.dtos;
+
+public enum SimulationMode {
+    // events arrive at wall clock rates and the pseudo clock follows the wall clock
+    REAL_TIME,
+    // events are generated in virtual time and the pseudo clock is advanced as fast as the rules allow
+    FAST_FORWARD
+}
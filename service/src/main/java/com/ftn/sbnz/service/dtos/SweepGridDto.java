@@ -0,0 +1,20 @@
+package com.ftn.sbnz.service.dtos;
+
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Values to sweep over, every combination is one scenario. A missing or empty list keeps the value of the base state.
+ */
+@Data
+public class SweepGridDto {
+
+    private List<SchedulingPolicy> policies;
+    private List<Integer> cpuCores;
+    private List<Integer> totalMemory;
+    private List<Integer> quantum;
+    // every configuration runs once per seed, all configurations see the same event streams for a seed
+    private List<Long> seeds;
+}
@@ -0,0 +1,10 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.Data;
+
+@Data
+public class SweepRequestDto {
+
+    private SystemStateDto base;
+    private SweepGridDto grid = new SweepGridDto();
+}
@@ -0,0 +1,21 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SweepResultDto {
+
+    // in grid order: policy, then cores, then memory, then quantum, then seed
+    private List<ScenarioResultDto> scenarios;
+    private int threads;
+    private long rulesFired;
+    private double wallTimeMillis;
+    // sum of the scenario wall times over the sweep wall time, how many scenarios ran side by side on average
+    private double speedup;
+}
@@ -1,5 +1,6 @@
 package com.ftn.sbnz.service.dtos;
 
+import com.ftn.sbnz.model.models.Process;
 import lombok.Data;
 
 @Data
@@ -7,4 +8,8 @@ public class SystemDto {
 
     private int cpuCores;
     private int totalMemory;
+    // instructions a running process executes per step, one keeps the step per instruction
+    private int quantum = 1;
+    // instructions a process runs before a time-slicing policy lets another one in
+    private int timeSlice = Process.DEFAULT_TIME_SLICE;
 }
@@ -1,35 +1,63 @@
 package com.ftn.sbnz.service.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
 import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
 import com.ftn.sbnz.model.models.Process;
-import com.ftn.sbnz.model.models.SystemState;
 import lombok.Data;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Data
 public class SystemStateDto {
 
     private SystemDto system;
     private List<ProcessDto> processes;
+    private SimulationMode mode = SimulationMode.REAL_TIME;
+    private SchedulingPolicy policy = SchedulingPolicy.PRIORITY;
+    // seed of the event streams, a random one is picked when it is missing
+    private Long seed;
+    // jobs publish their events on /jobs/{id}/events while they run and keep only a bounded tail for the result
+    private boolean stream;
 
-    public SystemState getSystemStateModel() {
-        return new SystemState(system.getTotalMemory());
+    @JsonIgnore
+    public MemoryState getMemoryStateModel() {
+        return new MemoryState(system.getTotalMemory());
     }
 
+    @JsonIgnore
+    public CpuState getCpuStateModel() {
+        return new CpuState();
+    }
+
+    @JsonIgnore
     public List<CpuCore> getCpuCoreModels() {
-        return Collections.nCopies(system.getCpuCores(), new CpuCore());
+        // one fact per core, copies of a single instance would be inserted as the same fact
+        return IntStream.rangeClosed(1, system.getCpuCores())
+                .mapToObj(CpuCore::new)
+                .collect(Collectors.toList());
     }
 
+    @JsonIgnore
     public List<Process> getProcessModels() {
-        return processes.stream().map(p -> new Process(
-                Integer.parseInt(p.getId()),
-                p.getPriority(),
-                p.getMemoryRequirement(),
-                p.getSafeMemoryLimit(),
-                p.getInstructionTypes()
-        )).collect(Collectors.toList());
+        int quantum = Math.max(1, system.getQuantum());
+        int timeSlice = Math.max(1, system.getTimeSlice());
+
+        return processes.stream().map(p -> {
+            Process process = new Process(
+                    Integer.parseInt(p.getId()),
+                    p.getPriority(),
+                    p.getMemoryRequirement(),
+                    p.getSafeMemoryLimit(),
+                    p.getInstructionStream()
+            );
+            process.setQuantum(quantum);
+            process.setTimeSlice(timeSlice);
+            return process;
+        }).collect(Collectors.toList());
     }
 }
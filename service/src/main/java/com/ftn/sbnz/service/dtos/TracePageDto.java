@@ -0,0 +1,21 @@
+package com.ftn.sbnz.service.dtos;
+
+import com.ftn.sbnz.service.trace.TraceRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TracePageDto {
+
+    private String traceId;
+    // index of the first record of the page among all firings of the trace
+    private long offset;
+    // firings in the whole trace, the page is the last one when offset plus the records reach it
+    private long total;
+    private List<TraceRecord> records;
+}
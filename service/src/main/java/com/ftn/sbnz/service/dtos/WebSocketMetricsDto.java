@@ -0,0 +1,20 @@
+package com.ftn.sbnz.service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WebSocketMetricsDto {
+
+    private int sessions;
+    private int queueCapacity;
+    private int queuedFrames;
+    private int maxQueueDepth;
+    private long sentFrames;
+    private long droppedFrames;
+    private long coalescedFrames;
+    private long failedFrames;
+}
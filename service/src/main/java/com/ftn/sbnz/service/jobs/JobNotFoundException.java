@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.jobs;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND, reason = "Unknown job id")
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String jobId) {
+        super("Unknown job: " + jobId);
+    }
+}
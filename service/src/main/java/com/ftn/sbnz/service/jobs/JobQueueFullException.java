@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.jobs;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many scheduling jobs are queued, retry later")
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(int capacity) {
+        super("Job queue is full (capacity " + capacity + ")");
+    }
+}
@@ -0,0 +1,98 @@
+package com.ftn.sbnz.service.jobs;
+
+import com.ftn.sbnz.service.dtos.EventBatchDto;
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.JobDto;
+import com.ftn.sbnz.service.dtos.JobStatus;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+public class SchedulingJob {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final SystemStateDto systemState;
+    @Getter
+    private final SimulationControl control = new SimulationControl();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private final Instant submittedAt = Instant.now();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile EventListDto result;
+    private volatile Future<?> future;
+    // the final batch of a streamed job, set before it is published
+    @Getter
+    private volatile EventBatchDto lastBatch;
+
+    public SchedulingJob(String id, SystemStateDto systemState) {
+        this.id = id;
+        this.systemState = systemState;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    synchronized boolean start() {
+        if (status != JobStatus.QUEUED) {
+            return false;
+        }
+        status = JobStatus.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void complete(EventListDto result) {
+        this.result = result;
+        finish(control.isCancelled() ? JobStatus.CANCELLED : JobStatus.COMPLETED);
+    }
+
+    synchronized void fail(Throwable cause) {
+        this.error = cause.getMessage();
+        finish(JobStatus.FAILED);
+    }
+
+    synchronized boolean cancelQueued() {
+        if (status != JobStatus.QUEUED) {
+            return false;
+        }
+        finish(JobStatus.CANCELLED);
+        return true;
+    }
+
+    void setLastBatch(EventBatchDto lastBatch) {
+        this.lastBatch = lastBatch;
+    }
+
+    /**
+     * Whether no more batches will be published for the job: it does not stream, its final batch went out
+     * or it was cancelled before it started.
+     */
+    public boolean isStreamClosed() {
+        return !systemState.isStream() || lastBatch != null || (startedAt == null && isFinished());
+    }
+
+    public boolean isFinished() {
+        JobStatus current = status;
+        return current == JobStatus.COMPLETED || current == JobStatus.CANCELLED || current == JobStatus.FAILED;
+    }
+
+    public JobDto toDto() {
+        return new JobDto(id, status, submittedAt, startedAt, finishedAt, error, result);
+    }
+
+    private void finish(JobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
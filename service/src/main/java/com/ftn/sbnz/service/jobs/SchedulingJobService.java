@@ -0,0 +1,187 @@
+package com.ftn.sbnz.service.jobs;
+
+import com.ftn.sbnz.service.JobEventsWsHandler;
+import com.ftn.sbnz.service.SampleAppService;
+import com.ftn.sbnz.service.dtos.EventBatchDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.simulation.EventStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs simulations in the background on a bounded executor, so request threads only submit, poll and cancel.
+ */
+@Service
+public class SchedulingJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingJobService.class);
+    private static final long CANCEL_TIMEOUT_MILLIS = 5000;
+
+    private final SampleAppService sampleService;
+    private final JobEventsWsHandler jobEventsHandler;
+    private final ScheduledExecutorService eventScheduler;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int retainedJobs;
+    private final int streamBatchSize;
+    private final int streamTailSize;
+    private final long streamFlushIntervalMillis;
+
+    private final Map<String, SchedulingJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobs = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public SchedulingJobService(SampleAppService sampleService,
+                                JobEventsWsHandler jobEventsHandler,
+                                ScheduledExecutorService eventScheduler,
+                                @Value("${scheduler.jobs.threads:${scheduler.session-pool.size:4}}") int threads,
+                                @Value("${scheduler.jobs.queue-capacity:32}") int queueCapacity,
+                                @Value("${scheduler.jobs.retained:100}") int retainedJobs,
+                                @Value("${scheduler.stream.batch-size:50}") int streamBatchSize,
+                                @Value("${scheduler.stream.tail-size:100}") int streamTailSize,
+                                @Value("${scheduler.stream.flush-interval-ms:200}") long streamFlushIntervalMillis) {
+        this.sampleService = sampleService;
+        this.jobEventsHandler = jobEventsHandler;
+        this.eventScheduler = eventScheduler;
+        this.queueCapacity = queueCapacity;
+        this.retainedJobs = retainedJobs;
+        this.streamBatchSize = streamBatchSize;
+        this.streamTailSize = streamTailSize;
+        this.streamFlushIntervalMillis = streamFlushIntervalMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "scheduling-job-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SchedulingJob submit(SystemStateDto systemState) {
+        SchedulingJob job = new SchedulingJob(UUID.randomUUID().toString(), systemState);
+        // the future is on the job before anyone can look the job up or a worker can start it,
+        // a cancel right after the submit waits on it
+        FutureTask<Void> task = new FutureTask<>(() -> run(job), null);
+        job.setFuture(task);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new JobQueueFullException(queueCapacity);
+        }
+
+        log.info("Submitted scheduling job {}", job.getId());
+        return job;
+    }
+
+    public SchedulingJob get(String jobId) {
+        SchedulingJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new JobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Removes a queued job from the executor or halts the session of a running one.
+     * A cancelled running job still completes with the events fired up to the halt.
+     */
+    public SchedulingJob cancel(String jobId) {
+        SchedulingJob job = get(jobId);
+
+        if (job.cancelQueued()) {
+            executor.remove((Runnable) job.getFuture());
+            markFinished(job);
+        } else if (!job.isFinished()) {
+            job.getControl().cancel();
+            awaitCompletion(job);
+        }
+
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(job -> job.getControl().cancel());
+    }
+
+    private void run(SchedulingJob job) {
+        if (!job.start()) {
+            return;
+        }
+
+        EventStream stream = null;
+        ScheduledFuture<?> flushing = null;
+        if (job.getSystemState().isStream()) {
+            stream = new EventStream(job.getId(), streamBatchSize, streamTailSize, batch -> publish(job, batch));
+            // partly filled batches are flushed periodically so slow simulations still show up promptly
+            flushing = eventScheduler.scheduleAtFixedRate(stream::flush,
+                    streamFlushIntervalMillis, streamFlushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            job.complete(sampleService.runSystem(job.getSystemState(), job.getControl(), stream));
+        } catch (RuntimeException e) {
+            log.error("Scheduling job {} failed", job.getId(), e);
+            job.fail(e);
+        } finally {
+            if (stream != null) {
+                flushing.cancel(false);
+                stream.close();
+            }
+            markFinished(job);
+        }
+    }
+
+    // clients that subscribe after the final batch get it from the job
+    private void publish(SchedulingJob job, EventBatchDto batch) {
+        if (batch.isLast()) {
+            job.setLastBatch(batch);
+        }
+        jobEventsHandler.publish(batch);
+    }
+
+    private void awaitCompletion(SchedulingJob job) {
+        try {
+            job.getFuture().get(CANCEL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Scheduling job {} did not stop cleanly: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void markFinished(SchedulingJob job) {
+        finishedJobs.add(job.getId());
+
+        // only a bounded number of finished jobs is kept around for polling
+        while (finishedJobs.size() > retainedJobs) {
+            String evicted = finishedJobs.poll();
+            if (evicted != null) {
+                jobs.remove(evicted);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ftn.sbnz.service.jobs;
+
+import org.kie.api.runtime.KieSession;
+
+/**
+ * Lets another thread stop a running simulation.
+ * The running simulation attaches its session right before firing and detaches it once the engine has stopped.
+ */
+public class SimulationControl {
+
+    private static final long HALT_RETRY_MILLIS = 10;
+
+    private KieSession session;
+    private boolean cancelled;
+    private boolean stopped;
+
+    /**
+     * @return false when the simulation was cancelled before it started and must not fire at all
+     */
+    public synchronized boolean attach(KieSession session) {
+        this.session = session;
+        return !cancelled;
+    }
+
+    public synchronized void detach() {
+        session = null;
+        stopped = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Halts the attached session and waits until the engine has left fireUntilHalt.
+     * A halt issued just before the engine starts firing is lost, so it is repeated until the simulation stops.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+
+        while (session != null && !stopped) {
+            session.halt();
+            try {
+                wait(HALT_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ftn.sbnz.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rule engine meters, summed over all sessions that are running a simulation:
+ * <ul>
+ *     <li>{@code drools.rule.firing} - time spent in the consequence of each rule, tagged with the rule name</li>
+ *     <li>{@code drools.working.memory.facts} - live facts of each type</li>
+ *     <li>{@code drools.agenda.size} - matches waiting to fire</li>
+ *     <li>{@code drools.events.inserted} and {@code drools.events.expired} - events of each type</li>
+ *     <li>{@code drools.sessions.active} and {@code drools.session.lifetime} - sessions in use and how long they were held</li>
+ * </ul>
+ * Sessions report to it through a {@link SessionMetricsListener} from {@link #attach} until it is detached.
+ */
+@Component
+public class RuleEngineMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> ruleTimers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> facts = new ConcurrentHashMap<>();
+    private final Map<String, Counter> insertedEvents = new ConcurrentHashMap<>();
+    private final Map<String, Counter> expiredEvents = new ConcurrentHashMap<>();
+    private final AtomicLong agendaSize = new AtomicLong();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Timer sessionLifetime;
+
+    @Autowired
+    public RuleEngineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("drools.agenda.size", agendaSize, AtomicLong::get)
+                .description("Matches waiting to fire")
+                .register(registry);
+        Gauge.builder("drools.sessions.active", activeSessions, AtomicInteger::get)
+                .description("Sessions running a simulation")
+                .register(registry);
+        this.sessionLifetime = Timer.builder("drools.session.lifetime")
+                .description("Time a session was held by one simulation")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Adds a listener that reports the rule firings and working memory changes of the session.
+     */
+    public SessionMetricsListener attach(KieSession kieSession) {
+        SessionMetricsListener listener = new SessionMetricsListener(this, System.nanoTime());
+        kieSession.addEventListener((AgendaEventListener) listener);
+        kieSession.addEventListener((RuleRuntimeEventListener) listener);
+        activeSessions.incrementAndGet();
+        return listener;
+    }
+
+    Timer ruleTimer(String rule) {
+        return ruleTimers.computeIfAbsent(rule, name -> Timer.builder("drools.rule.firing")
+                .description("Time spent in the consequence of a rule")
+                .tag("rule", name)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    AtomicLong facts(String type) {
+        return facts.computeIfAbsent(type, name -> {
+            AtomicLong count = new AtomicLong();
+            Gauge.builder("drools.working.memory.facts", count, AtomicLong::get)
+                    .description("Live facts of a type")
+                    .tag("type", name)
+                    .register(registry);
+            return count;
+        });
+    }
+
+    Counter insertedEvents(String type) {
+        return insertedEvents.computeIfAbsent(type, name -> Counter.builder("drools.events.inserted")
+                .tag("type", name)
+                .register(registry));
+    }
+
+    Counter expiredEvents(String type) {
+        return expiredEvents.computeIfAbsent(type, name -> Counter.builder("drools.events.expired")
+                .description("Events that were removed by their expiration rather than by a rule")
+                .tag("type", name)
+                .register(registry));
+    }
+
+    AtomicLong agendaSize() {
+        return agendaSize;
+    }
+
+    void sessionDetached(long lifetimeNanos) {
+        activeSessions.decrementAndGet();
+        sessionLifetime.record(lifetimeNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ftn.sbnz.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.definition.type.Role;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports the firings and working memory changes of one session to the shared {@link RuleEngineMetrics}.
+ * It keeps what the session contributed to the gauges, so {@link #detach} can take it back out
+ * before the session is reset, which drops facts and matches without any events.
+ */
+public class SessionMetricsListener extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    private final RuleEngineMetrics metrics;
+    private final long attachedAtNanos;
+    // meters are looked up once per rule and fact type, the shared maps are not touched on every firing
+    private final Map<Rule, Timer> ruleTimers = new IdentityHashMap<>();
+    private final Map<Class<?>, FactType> factTypes = new HashMap<>();
+    private long pendingMatches;
+    private long firingStartedNanos;
+    private boolean detached;
+
+    SessionMetricsListener(RuleEngineMetrics metrics, long attachedAtNanos) {
+        this.metrics = metrics;
+        this.attachedAtNanos = attachedAtNanos;
+    }
+
+    @Override
+    public void matchCreated(MatchCreatedEvent event) {
+        pendingMatches++;
+        metrics.agendaSize().incrementAndGet();
+    }
+
+    @Override
+    public void matchCancelled(MatchCancelledEvent event) {
+        pendingMatches--;
+        metrics.agendaSize().decrementAndGet();
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        pendingMatches--;
+        metrics.agendaSize().decrementAndGet();
+        firingStartedNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        long elapsed = System.nanoTime() - firingStartedNanos;
+        ruleTimers.computeIfAbsent(event.getMatch().getRule(), rule -> metrics.ruleTimer(rule.getName()))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        FactType type = factType(event.getObject().getClass());
+        type.added(1);
+        if (type.inserted != null) {
+            type.inserted.increment();
+        }
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        FactType type = factType(event.getOldObject().getClass());
+        type.added(-1);
+        // rules delete the events they consume, the ones deleted outside a rule have expired
+        if (type.expired != null && event.getRule() == null) {
+            type.expired.increment();
+        }
+    }
+
+    /**
+     * Takes the facts and matches of the session out of the gauges and records how long it was attached.
+     */
+    public void detach() {
+        if (detached) {
+            return;
+        }
+        detached = true;
+
+        factTypes.values().forEach(type -> type.added(-type.live));
+        metrics.agendaSize().addAndGet(-pendingMatches);
+        pendingMatches = 0;
+        metrics.sessionDetached(System.nanoTime() - attachedAtNanos);
+    }
+
+    private FactType factType(Class<?> type) {
+        return factTypes.computeIfAbsent(type, this::newFactType);
+    }
+
+    private FactType newFactType(Class<?> type) {
+        String name = type.getSimpleName();
+        Role role = type.getAnnotation(Role.class);
+        boolean event = role != null && role.value() == Role.Type.EVENT;
+        return new FactType(metrics.facts(name),
+                event ? metrics.insertedEvents(name) : null,
+                event ? metrics.expiredEvents(name) : null);
+    }
+
+    private static class FactType {
+
+        private final AtomicLong shared;
+        private final Counter inserted;
+        private final Counter expired;
+        private long live;
+
+        FactType(AtomicLong shared, Counter inserted, Counter expired) {
+            this.shared = shared;
+            this.inserted = inserted;
+            this.expired = expired;
+        }
+
+        void added(long count) {
+            live += count;
+            shared.addAndGet(count);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ftn.sbnz.service.pool;
+
+import com.ftn.sbnz.listener.ProcessQueueListener;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.service.dtos.SessionPoolMetricsDto;
+import com.ftn.sbnz.tracing.SessionLifecycleEvent;
+import com.ftn.sbnz.tracing.TracingListener;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.runtime.rule.FactHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of pre-warmed sessions created from the shared KieBases, one per scheduling policy.
+ * Sessions are reset when they are returned, so a borrowed session is always empty and its pseudo clock is at zero.
+ * The pool warms up with sessions of the priority policy; a borrow of another policy with no idle session of its own
+ * disposes an idle session of some other policy and creates one, so the pool never holds more than its size.
+ */
+@Component
+public class KieSessionPool {
+
+    private static final Logger log = LoggerFactory.getLogger(KieSessionPool.class);
+
+    private final int size;
+    private final long borrowTimeoutMillis;
+    // one permit per session that is not borrowed, idle or not yet created
+    private final Semaphore permits;
+    private final Map<SchedulingPolicy, Queue<KieSession>> idle = new EnumMap<>(SchedulingPolicy.class);
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public KieSessionPool(@Value("${scheduler.session-pool.size:4}") int size,
+                          @Value("${scheduler.session-pool.borrow-timeout-ms:500}") long borrowTimeoutMillis) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Session pool size must be positive, got " + size);
+        }
+
+        this.size = size;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(size, true);
+
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            idle.put(policy, new ConcurrentLinkedQueue<>());
+        }
+        for (int i = 0; i < size; i++) {
+            idle.get(SchedulingPolicy.PRIORITY).add(DroolsUtil.getSession());
+        }
+        log.info("Session pool warmed up with {} sessions", size);
+    }
+
+    public KieSession borrow() {
+        return borrow(SchedulingPolicy.PRIORITY);
+    }
+
+    /**
+     * Waits up to the configured timeout for a session of the given policy.
+     *
+     * @throws SessionPoolExhaustedException when every session stays in use for the whole timeout
+     */
+    public KieSession borrow(SchedulingPolicy policy) {
+        long start = System.nanoTime();
+        boolean acquired;
+
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionPoolExhaustedException(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            rejected.incrementAndGet();
+            throw new SessionPoolExhaustedException(TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+
+        KieSession session;
+        try {
+            session = idle.get(policy).poll();
+            if (session == null) {
+                session = switchPolicy(policy);
+            }
+            // a recording may have started or stopped while the session was idle
+            TracingListener.update(session);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        borrowed.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        inUse.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Resets the session and makes it available again. A session that cannot be reset is replaced with a new one.
+     */
+    public void release(KieSession session) {
+        SchedulingPolicy policy = DroolsUtil.getPolicy(session.getKieBase());
+
+        // the permit goes back even when no session does, a later borrow creates the missing one
+        try {
+            idle.get(policy).offer(recycle(session, policy));
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    public SessionPoolMetricsDto getMetrics() {
+        long borrowCount = borrowed.get();
+        double averageWait = borrowCount == 0 ? 0 : totalWaitNanos.get() / (double) borrowCount / 1_000_000;
+
+        return new SessionPoolMetricsDto(
+                size,
+                inUse.get(),
+                idle.values().stream().mapToInt(Queue::size).sum(),
+                borrowCount,
+                rejected.get(),
+                averageWait,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Queue<KieSession> sessions : idle.values()) {
+            sessions.forEach(KieSessionPool::dispose);
+            sessions.clear();
+        }
+    }
+
+    private static KieSession recycle(KieSession session, SchedulingPolicy policy) {
+        try {
+            reset(session, policy);
+            return session;
+        } catch (RuntimeException e) {
+            log.warn("Could not reset session, replacing it: {}", e.getMessage());
+            dispose(session);
+            return DroolsUtil.getSession(policy);
+        }
+    }
+
+    // the permit held by the caller covers a session that is idle under another policy or was never created
+    private KieSession switchPolicy(SchedulingPolicy policy) {
+        for (Queue<KieSession> sessions : idle.values()) {
+            KieSession replaced = sessions.poll();
+            if (replaced != null) {
+                dispose(replaced);
+                break;
+            }
+        }
+        return DroolsUtil.getSession(policy);
+    }
+
+    private static void dispose(KieSession session) {
+        SessionLifecycleEvent disposed = new SessionLifecycleEvent();
+        disposed.sessionId = session.getIdentifier();
+        disposed.begin();
+        session.dispose();
+        disposed.action = SessionLifecycleEvent.DISPOSED;
+        disposed.commit();
+    }
+
+    private static void reset(KieSession session, SchedulingPolicy policy) {
+        SessionLifecycleEvent resetEvent = new SessionLifecycleEvent();
+        resetEvent.begin();
+
+        for (AgendaEventListener listener : new ArrayList<>(session.getAgendaEventListeners())) {
+            session.removeEventListener(listener);
+        }
+        for (RuleRuntimeEventListener listener : new ArrayList<>(session.getRuleRuntimeEventListeners())) {
+            session.removeEventListener(listener);
+        }
+
+        // windowed events have to be retracted through the network before the reset, otherwise their staged
+        // expirations survive it and break the window nodes once the pseudo clock moves in the next simulation;
+        // the streamed events live in their own entry points, the default one only holds the system facts
+        for (EntryPoint entryPoint : session.getEntryPoints()) {
+            new ArrayList<FactHandle>(entryPoint.getFactHandles()).forEach(entryPoint::delete);
+        }
+        session.fireAllRules();
+        // drops all facts, activations and timers and rewinds the pseudo clock
+        ((StatefulKnowledgeSessionImpl) session).reset();
+        // the process queues went with the listeners and facts above, the tracing comes back with the next borrow
+        ProcessQueueListener.install(session, policy);
+
+        resetEvent.action = SessionLifecycleEvent.RESET;
+        resetEvent.sessionId = session.getIdentifier();
+        resetEvent.commit();
+    }
+}
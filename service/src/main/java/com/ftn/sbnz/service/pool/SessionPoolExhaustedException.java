@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.pool;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "All rule engine sessions are busy, retry later")
+public class SessionPoolExhaustedException extends RuntimeException {
+
+    public SessionPoolExhaustedException(long waitedMillis) {
+        super("No KieSession became available within " + waitedMillis + " ms");
+    }
+}
@@ -0,0 +1,147 @@
+package com.ftn.sbnz.service.recording;
+
+import com.ftn.sbnz.service.dtos.RecordingDto;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Flight recordings started through the API. Besides the JDK events they capture the scheduler events
+ * in {@code com.ftn.sbnz.tracing}, so GC pauses and lock contention can be lined up with rule firings.
+ * A recording keeps its data on disk and only the last {@code maxAge} of it, up to {@code maxSize} bytes, so one left
+ * running stays bounded; only {@code maxRecordings} run at once.
+ */
+@Component
+public class FlightRecordings {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordings.class);
+
+    private final Duration defaultMaxAge;
+    private final int maxRecordings;
+    private final long maxSizeBytes;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    public FlightRecordings(@Value("${scheduler.recordings.max-age-s:600}") long defaultMaxAgeSeconds,
+                            @Value("${scheduler.recordings.max-running:2}") int maxRecordings,
+                            @Value("${scheduler.recordings.max-size-bytes:268435456}") long maxSizeBytes) {
+        this.defaultMaxAge = Duration.ofSeconds(defaultMaxAgeSeconds);
+        this.maxRecordings = maxRecordings;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * @param settings a JDK settings file, "default" for always-on use or "profile" for more detail
+     * @param maxAgeSeconds how much of the recording is kept, the configured default when null
+     * @throws TooManyRecordingsException when the configured number of recordings is already running
+     */
+    public synchronized RecordingDto start(String settings, Long maxAgeSeconds) {
+        if (recordings.size() >= maxRecordings) {
+            throw new TooManyRecordingsException(maxRecordings);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new UnknownRecordingSettingsException(settings);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("scheduler-" + settings);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : defaultMaxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+
+        log.info("Started flight recording {} with {} settings", recording.getId(), settings);
+        return toDto(recording);
+    }
+
+    public List<RecordingDto> list() {
+        return recordings.values().stream().map(FlightRecordings::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Writes what the recording holds so far to a temporary file, which the caller deletes once it has read it.
+     * The recording keeps running.
+     */
+    public Path dump(long recordingId) {
+        Recording recording = get(recordingId);
+        Path file = null;
+
+        try {
+            file = Files.createTempFile("scheduler-recording-" + recordingId + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            delete(file);
+            throw new UncheckedIOException("Could not dump recording " + recordingId, e);
+        }
+    }
+
+    public static void delete(Path dump) {
+        if (dump == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dump);
+        } catch (IOException e) {
+            log.debug("Could not delete dump {}: {}", dump, e.getMessage());
+        }
+    }
+
+    public RecordingDto stop(long recordingId) {
+        Recording recording = recordings.remove(recordingId);
+        if (recording == null) {
+            throw new RecordingNotFoundException(recordingId);
+        }
+
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        RecordingDto dto = toDto(recording);
+        recording.close();
+        return dto;
+    }
+
+    @PreDestroy
+    public void close() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private Recording get(long recordingId) {
+        Recording recording = recordings.get(recordingId);
+        if (recording == null) {
+            throw new RecordingNotFoundException(recordingId);
+        }
+        return recording;
+    }
+
+    private static RecordingDto toDto(Recording recording) {
+        return new RecordingDto(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : 0
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.recording;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND, reason = "Unknown recording id")
+public class RecordingNotFoundException extends RuntimeException {
+
+    public RecordingNotFoundException(long recordingId) {
+        super("Unknown recording: " + recordingId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.recording;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many flight recordings running, stop one first")
+public class TooManyRecordingsException extends RuntimeException {
+
+    public TooManyRecordingsException(int maxRecordings) {
+        super("At most " + maxRecordings + " flight recordings can run at once");
+    }
+}
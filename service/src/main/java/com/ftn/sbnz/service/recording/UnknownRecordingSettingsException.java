@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.recording;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Unknown recording settings, use default or profile")
+public class UnknownRecordingSettingsException extends RuntimeException {
+
+    public UnknownRecordingSettingsException(String settings) {
+        super("Unknown recording settings: " + settings);
+    }
+}
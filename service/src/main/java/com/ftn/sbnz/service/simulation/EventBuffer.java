@@ -0,0 +1,95 @@
+package com.ftn.sbnz.service.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring buffer with any number of producers and a single consumer.
+ * Producers claim a slot with one compare-and-set and never wait: when the buffer is full the element is dropped.
+ * Every slot carries a sequence number that tells whether it holds an element for the consumer
+ * or is free for the producers of the next lap around the ring.
+ */
+public class EventBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // only read and written by the consumer
+    private long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public EventBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * @return false when the buffer was full and the element was dropped
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long lag = sequences.get(slot) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // the consumer has not freed this slot since the previous lap
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        elements[slot] = element;
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Hands every published element to the consumer, in the order their slots were claimed.
+     * Must only be called by one thread at a time.
+     *
+     * @return the number of elements drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> consumer) {
+        int drained = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                return drained;
+            }
+
+            E element = (E) elements[slot];
+            elements[slot] = null;
+            sequences.set(slot, head + elements.length);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
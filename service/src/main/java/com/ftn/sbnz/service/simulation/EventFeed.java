@@ -0,0 +1,96 @@
+package com.ftn.sbnz.service.simulation;
+
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Carries the streamed events of one session into their entry points.
+ * <p>
+ * Producer threads {@link #offer} events into an {@link EventBuffer} and never touch the session.
+ * The first offer after a drain submits a drain action, which the engine runs on its own thread
+ * between rule firings and which inserts everything buffered so far in one batch.
+ * Callers that already run on the engine thread, like fast-forward simulations, {@link #insert} directly.
+ */
+public class EventFeed {
+
+    private final KieSession kieSession;
+    private final Map<Class<?>, EntryPoint> entryPoints = new IdentityHashMap<>();
+    private final EventBuffer<Object> buffer;
+    private final Runnable beforeDrain;
+    private final AtomicBoolean drainSubmitted = new AtomicBoolean();
+    private final KieSession.AtomicAction drain = this::drain;
+    private volatile boolean closed;
+
+    /**
+     * @param beforeDrain run on the engine thread before every batch is inserted
+     */
+    public EventFeed(KieSession kieSession, int capacity, Runnable beforeDrain) {
+        this.kieSession = kieSession;
+        this.buffer = new EventBuffer<>(capacity);
+        this.beforeDrain = beforeDrain;
+        entryPoints.put(CpuTemperatureEvent.class, kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT));
+        entryPoints.put(IOEvent.class, kieSession.getEntryPoint(IOEvent.ENTRY_POINT));
+        entryPoints.put(PageFaultEvent.class, kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT));
+    }
+
+    public EventFeed(KieSession kieSession, int capacity) {
+        this(kieSession, capacity, () -> {});
+    }
+
+    /**
+     * Buffers the event for the engine thread. Safe to call from any thread.
+     *
+     * @return false when the buffer was full or the feed is closed, the event is then dropped
+     */
+    public boolean offer(Object event) {
+        if (closed || !buffer.offer(event)) {
+            return false;
+        }
+
+        // the flag is cleared before the drain reads the buffer, so an event published after that read submits again
+        if (!drainSubmitted.getAndSet(true)) {
+            kieSession.submit(drain);
+        }
+        return true;
+    }
+
+    /**
+     * Inserts the event right away. Must be called on the thread that runs the engine.
+     */
+    public void insert(Object event) {
+        entryPoints.getOrDefault(event.getClass(), kieSession).insert(event);
+    }
+
+    /**
+     * Drops the buffered events and any offered later. A drain that is still pending inserts nothing,
+     * so the session can be reset once the producers have stopped.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    public long getDropped() {
+        return buffer.getDropped();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    private void drain(KieSession session) {
+        drainSubmitted.set(false);
+        if (closed) {
+            return;
+        }
+
+        beforeDrain.run();
+        buffer.drain(this::insert);
+    }
+}
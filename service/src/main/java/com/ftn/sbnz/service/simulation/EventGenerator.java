@@ -0,0 +1,170 @@
+package com.ftn.sbnz.service.simulation;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.Process;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionPseudoClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Produces the temperature, page fault and I/O event streams of one simulation.
+ * Each stream is a single periodic task that covers every process, so the number of threads
+ * does not depend on the number of processes.
+ * <p>
+ * In real time the streams run on a scheduler and offer their events to an {@link EventFeed}, which inserts them
+ * on the engine thread after moving the session pseudo clock up to the wall clock.
+ * In fast-forward mode the caller advances the pseudo clock itself and asks for the events due at each tick.
+ */
+public class EventGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(EventGenerator.class);
+
+    public static final long TEMPERATURE_PERIOD_MILLIS = 500;
+    public static final long PAGE_FAULT_PERIOD_MILLIS = 1000;
+    public static final long IO_PERIOD_MILLIS = 1500;
+    // greatest common divisor of the stream periods, the step of a fast-forward simulation
+    public static final long TICK_MILLIS = 500;
+
+    private static final double PAGE_FAULT_PROBABILITY = 0.2;
+    private static final float STARTING_TEMPERATURE = 50;
+
+    private final SessionPseudoClock clock;
+    private final EventFeed feed;
+    private final int[] processIds;
+    private final Process[] ioProcesses;
+    private final Random random;
+    private final Consumer<Float> temperatureListener;
+
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+    private float temperature = STARTING_TEMPERATURE;
+    private boolean running;
+    private volatile long startedAtNanos;
+
+    public EventGenerator(KieSession kieSession, List<Process> processes, Random random, Consumer<Float> temperatureListener) {
+        this.clock = kieSession.getSessionClock();
+        // room for a full round of every stream, so only an engine that is more than a round behind loses events
+        this.feed = new EventFeed(kieSession, 2 * processes.size() + 64, this::syncClock);
+        this.processIds = processes.stream().mapToInt(Process::getId).toArray();
+        this.ioProcesses = processes.stream()
+                .filter(process -> process.getInstructions().hasIo())
+                .toArray(Process[]::new);
+        this.random = random;
+        this.temperatureListener = temperatureListener;
+    }
+
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        running = true;
+        startedAtNanos = System.nanoTime();
+        tasks.add(scheduler.scheduleAtFixedRate(this::emitTemperature, 0, TEMPERATURE_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+        tasks.add(scheduler.scheduleAtFixedRate(this::emitPageFaults, 0, PAGE_FAULT_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+        if (ioProcesses.length > 0) {
+            tasks.add(scheduler.scheduleAtFixedRate(this::emitIoEvents, 0, IO_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Cancels the periodic tasks. Once this returns no further event reaches the session,
+     * so the session can safely be reset.
+     */
+    public synchronized void stop() {
+        running = false;
+        tasks.forEach(task -> task.cancel(false));
+        tasks.clear();
+        feed.close();
+
+        if (feed.getDropped() > 0) {
+            log.warn("Dropped {} events the rule engine did not keep up with", feed.getDropped());
+        }
+    }
+
+    public long getDroppedEvents() {
+        return feed.getDropped();
+    }
+
+    public synchronized void emitTemperature() {
+        if (!running) {
+            return;
+        }
+
+        insertTemperature(feed::offer);
+    }
+
+    public synchronized void emitPageFaults() {
+        if (!running) {
+            return;
+        }
+
+        insertPageFaults(feed::offer);
+    }
+
+    public synchronized void emitIoEvents() {
+        if (!running) {
+            return;
+        }
+
+        insertIoEvents(feed::offer);
+    }
+
+    /**
+     * Inserts the events of every stream whose period divides the given virtual time.
+     * Used by fast-forward simulations, which are never started on a scheduler.
+     */
+    public synchronized void emitDue(long virtualTimeMillis) {
+        if (virtualTimeMillis % TEMPERATURE_PERIOD_MILLIS == 0) {
+            insertTemperature(feed::insert);
+        }
+        if (virtualTimeMillis % PAGE_FAULT_PERIOD_MILLIS == 0) {
+            insertPageFaults(feed::insert);
+        }
+        if (virtualTimeMillis % IO_PERIOD_MILLIS == 0) {
+            insertIoEvents(feed::insert);
+        }
+    }
+
+    // moves the pseudo clock up to the wall time elapsed since start, so rule timers and windows see real time.
+    // Runs on the engine thread before each batch of events is inserted
+    private void syncClock() {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos);
+        long behindMillis = elapsedMillis - clock.getCurrentTime();
+        if (behindMillis > 0) {
+            clock.advanceTime(behindMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void insertTemperature(Consumer<Object> target) {
+        float change = (random.nextFloat() - 0.5f) * 4.0f;
+        temperature = Math.max(20.0f, Math.min(130.0f, temperature + change));
+        target.accept(new CpuTemperatureEvent(temperature));
+        temperatureListener.accept(temperature);
+    }
+
+    private void insertPageFaults(Consumer<Object> target) {
+        for (int processId : processIds) {
+            if (random.nextDouble() < PAGE_FAULT_PROBABILITY) {
+                target.accept(new PageFaultEvent(processId));
+            }
+        }
+    }
+
+    // only a blocked process can use an I/O completion, events for the others would just wait to expire.
+    // In real time the status is read while the engine runs, a stale read costs at most one tick
+    private void insertIoEvents(Consumer<Object> target) {
+        for (Process process : ioProcesses) {
+            if (process.getStatus() == ProcessStatus.BLOCKED) {
+                target.accept(new IOEvent(process.getId()));
+            }
+        }
+    }
+}
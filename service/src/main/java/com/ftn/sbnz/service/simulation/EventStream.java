@@ -0,0 +1,68 @@
+package com.ftn.sbnz.service.simulation;
+
+import com.ftn.sbnz.listener.FiredRule;
+import com.ftn.sbnz.service.dtos.EventBatchDto;
+import com.ftn.sbnz.service.dtos.EventDto;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the events of one job in small batches while the simulation runs.
+ * A batch is sent once it is full or when it is flushed, so at most one batch is held in memory.
+ */
+public class EventStream {
+
+    @Getter
+    private final String jobId;
+    @Getter
+    private final int tailSize;
+    private final int batchSize;
+    private final Consumer<EventBatchDto> channel;
+
+    private List<EventDto> batch;
+    private long sequence;
+    private boolean closed;
+
+    public EventStream(String jobId, int batchSize, int tailSize, Consumer<EventBatchDto> channel) {
+        this.jobId = jobId;
+        this.batchSize = batchSize;
+        this.tailSize = tailSize;
+        this.channel = channel;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    public synchronized void publish(FiredRule firedRule) {
+        if (closed) {
+            return;
+        }
+
+        batch.add(firedRule.toEventDto());
+        if (batch.size() >= batchSize) {
+            send(false);
+        }
+    }
+
+    public synchronized void flush() {
+        if (!closed && !batch.isEmpty()) {
+            send(false);
+        }
+    }
+
+    /**
+     * Sends the remaining events in a final frame. Nothing is published afterwards.
+     */
+    public synchronized void close() {
+        if (!closed) {
+            send(true);
+            closed = true;
+        }
+    }
+
+    private void send(boolean last) {
+        channel.accept(new EventBatchDto(jobId, sequence++, batch, last));
+        batch = new ArrayList<>(batchSize);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ftn.sbnz.service.simulation;
+
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionClock;
+
+import java.util.List;
+
+/**
+ * Inserts the facts a simulation starts from. Simulations and their replays insert them in the same order,
+ * so the engine sees the same sequence of inserts in both.
+ */
+public final class SimulationFacts {
+
+    private SimulationFacts() {
+    }
+
+    /**
+     * @return the inserted processes
+     */
+    public static List<Process> insert(KieSession kieSession, SystemStateDto systemState) {
+        List<Process> processes = systemState.getProcessModels();
+        insert(kieSession, systemState, processes);
+        return processes;
+    }
+
+    /**
+     * Inserts the system state with process models that were already built from it.
+     */
+    public static void insert(KieSession kieSession, SystemStateDto systemState, List<Process> processes) {
+        SessionClock clock = kieSession.getSessionClock();
+
+        kieSession.insert(systemState.getMemoryStateModel());
+        kieSession.insert(systemState.getCpuStateModel());
+        for (CpuCore core : systemState.getCpuCoreModels()) {
+            core.attachClock(clock);
+            kieSession.insert(core);
+        }
+        for (Process process : processes) {
+            process.attachClock(clock);
+            kieSession.insert(process);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.ftn.sbnz.service.statistics;
+
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.CoreStatisticsDto;
+import com.ftn.sbnz.service.dtos.DistributionDto;
+import com.ftn.sbnz.service.dtos.ProcessStatisticsDto;
+import com.ftn.sbnz.service.dtos.SchedulingStatisticsDto;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates the scheduling statistics of a run from the status changes of its processes and cores as the rules
+ * make them. A change costs a map lookup and a few additions, and the statistics take a fixed amount of memory per
+ * process and core however long the run is. Attach it before the facts are inserted.
+ */
+public class SchedulingStatistics implements RuleRuntimeEventListener {
+
+    private static final int STATUSES = ProcessStatus.values().length;
+
+    private final SessionClock clock;
+    // the process and core facts are the keys, a modify hands the same instance back
+    private final Map<Object, ProcessAccumulator> processes = new IdentityHashMap<>();
+    private final Map<Object, CoreAccumulator> cores = new IdentityHashMap<>();
+    // cores only carry the id of the process they run
+    private final Map<Integer, ProcessAccumulator> processesById = new HashMap<>();
+
+    private SchedulingStatistics(SessionClock clock) {
+        this.clock = clock;
+    }
+
+    public static SchedulingStatistics attach(KieSession kieSession) {
+        SchedulingStatistics statistics = new SchedulingStatistics(kieSession.getSessionClock());
+        kieSession.addEventListener(statistics);
+        return statistics;
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        Object fact = event.getObject();
+        if (fact instanceof Process) {
+            Process process = (Process) fact;
+            ProcessAccumulator accumulator = new ProcessAccumulator(process.getId(), process.getStatus(), clock.getCurrentTime());
+            processes.put(process, accumulator);
+            processesById.put(process.getId(), accumulator);
+        } else if (fact instanceof CpuCore) {
+            CpuCore core = (CpuCore) fact;
+            cores.put(core, new CoreAccumulator(core.getId(), core.getStatus(), clock.getCurrentTime()));
+        }
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        Object fact = event.getObject();
+        if (fact instanceof Process) {
+            ProcessAccumulator accumulator = processes.get(fact);
+            if (accumulator != null) {
+                accumulator.moveTo(((Process) fact).getStatus(), clock.getCurrentTime());
+            }
+        } else if (fact instanceof CpuCore) {
+            CpuCore core = (CpuCore) fact;
+            CoreAccumulator accumulator = cores.get(core);
+            if (accumulator == null) {
+                return;
+            }
+            // most page faults are dropped by the rules, only the ones that make a core page cost the process anything
+            if (core.getStatus() == CpuCoreStatus.PAGING && accumulator.status != CpuCoreStatus.PAGING
+                    && core.getCurrentProcessId() != null) {
+                ProcessAccumulator process = processesById.get(core.getCurrentProcessId());
+                if (process != null) {
+                    process.pageFaults++;
+                }
+            }
+            accumulator.moveTo(core.getStatus(), clock.getCurrentTime());
+        }
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+    }
+
+    /**
+     * The statistics up to the given virtual time, which closes the status every process and core is still in.
+     */
+    public SchedulingStatisticsDto summarize(long virtualTime) {
+        List<ProcessStatisticsDto> processStatistics = new ArrayList<>(processes.size());
+        long[] turnaround = new long[processes.size()];
+        long[] waiting = new long[processes.size()];
+        long[] response = new long[processes.size()];
+        int finished = 0;
+        int started = 0;
+        long contextSwitches = 0;
+        long preemptions = 0;
+        long pageFaults = 0;
+
+        for (ProcessAccumulator accumulator : processes.values()) {
+            long[] timeInStatus = accumulator.timeInStatus(virtualTime);
+            Long turnaroundTime = accumulator.exitedAt >= 0 ? accumulator.exitedAt - accumulator.arrivedAt : null;
+            Long responseTime = accumulator.firstRunAt >= 0 ? accumulator.firstRunAt - accumulator.arrivedAt : null;
+
+            if (turnaroundTime != null) {
+                turnaround[finished++] = turnaroundTime;
+            }
+            if (responseTime != null) {
+                response[started++] = responseTime;
+            }
+            waiting[processStatistics.size()] = timeInStatus[ProcessStatus.READY.ordinal()];
+            contextSwitches += accumulator.contextSwitches;
+            preemptions += accumulator.preemptions;
+            pageFaults += accumulator.pageFaults;
+
+            processStatistics.add(new ProcessStatisticsDto(
+                    String.valueOf(accumulator.id),
+                    statusMap(timeInStatus),
+                    accumulator.contextSwitches,
+                    accumulator.preemptions,
+                    accumulator.pageFaults,
+                    responseTime,
+                    turnaroundTime
+            ));
+        }
+
+        List<CoreStatisticsDto> coreStatistics = new ArrayList<>(cores.size());
+        long coreTime = 0;
+        for (CoreAccumulator accumulator : cores.values()) {
+            accumulator.moveTo(accumulator.status, virtualTime);
+            long used = accumulator.busyTime + accumulator.pagingTime;
+            coreTime += used;
+            coreStatistics.add(new CoreStatisticsDto(accumulator.id, accumulator.busyTime, accumulator.pagingTime,
+                    accumulator.dispatches, ratio(used, virtualTime)));
+        }
+
+        return new SchedulingStatisticsDto(
+                processStatistics,
+                coreStatistics,
+                contextSwitches,
+                preemptions,
+                pageFaults,
+                distribution(turnaround, finished),
+                distribution(waiting, processStatistics.size()),
+                distribution(response, started),
+                ratio(coreTime, virtualTime * cores.size())
+        );
+    }
+
+    private static Map<ProcessStatus, Long> statusMap(long[] timeInStatus) {
+        Map<ProcessStatus, Long> statuses = new EnumMap<>(ProcessStatus.class);
+        for (ProcessStatus status : ProcessStatus.values()) {
+            if (timeInStatus[status.ordinal()] > 0) {
+                statuses.put(status, timeInStatus[status.ordinal()]);
+            }
+        }
+        return statuses;
+    }
+
+    // exact nearest-rank percentiles, there is one value per process so sorting them once is cheap
+    private static DistributionDto distribution(long[] values, int count) {
+        if (count == 0) {
+            return new DistributionDto();
+        }
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+
+        long sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        return new DistributionDto(count, sum / (double) count,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[count - 1]);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole > 0 ? part / (double) whole : 0;
+    }
+
+    private static class ProcessAccumulator {
+
+        private final int id;
+        private final long arrivedAt;
+        private final long[] timeInStatus = new long[STATUSES];
+        private ProcessStatus status;
+        private long since;
+        private long firstRunAt = -1;
+        private long exitedAt = -1;
+        private int contextSwitches;
+        private int preemptions;
+        private int pageFaults;
+
+        ProcessAccumulator(int id, ProcessStatus status, long now) {
+            this.id = id;
+            this.status = status;
+            this.arrivedAt = now;
+            this.since = now;
+        }
+
+        // most updates are executed instructions that leave the status as it is
+        void moveTo(ProcessStatus next, long now) {
+            if (next == status) {
+                return;
+            }
+            timeInStatus[status.ordinal()] += now - since;
+
+            if (next == ProcessStatus.RUNNING) {
+                contextSwitches++;
+                if (firstRunAt < 0) {
+                    firstRunAt = now;
+                }
+            } else if (status == ProcessStatus.RUNNING && (next == ProcessStatus.READY || next == ProcessStatus.SUSPENDED)) {
+                preemptions++;
+            }
+            if (next == ProcessStatus.EXIT) {
+                exitedAt = now;
+            }
+
+            status = next;
+            since = now;
+        }
+
+        // a process that exited stops accumulating time
+        long[] timeInStatus(long now) {
+            long[] times = timeInStatus.clone();
+            if (status != ProcessStatus.EXIT) {
+                times[status.ordinal()] += now - since;
+            }
+            return times;
+        }
+    }
+
+    private static class CoreAccumulator {
+
+        private final int id;
+        private CpuCoreStatus status;
+        private long since;
+        private long busyTime;
+        private long pagingTime;
+        private int dispatches;
+
+        CoreAccumulator(int id, CpuCoreStatus status, long now) {
+            this.id = id;
+            this.status = status;
+            this.since = now;
+        }
+
+        void moveTo(CpuCoreStatus next, long now) {
+            if (status == CpuCoreStatus.BUSY) {
+                busyTime += now - since;
+            } else if (status == CpuCoreStatus.PAGING) {
+                pagingTime += now - since;
+            }
+            if (status == CpuCoreStatus.IDLE && next != CpuCoreStatus.IDLE) {
+                dispatches++;
+            }
+
+            status = next;
+            since = now;
+        }
+    }
+}
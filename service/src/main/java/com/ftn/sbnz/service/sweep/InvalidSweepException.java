@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.sweep;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "The sweep needs a base system and positive cores, memory and quantum")
+public class InvalidSweepException extends RuntimeException {
+
+    public InvalidSweepException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,223 @@
+package com.ftn.sbnz.service.sweep;
+
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.service.SampleAppService;
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.EventType;
+import com.ftn.sbnz.service.dtos.ScenarioResultDto;
+import com.ftn.sbnz.service.dtos.SimulationMode;
+import com.ftn.sbnz.service.dtos.SweepGridDto;
+import com.ftn.sbnz.service.dtos.SweepRequestDto;
+import com.ftn.sbnz.service.dtos.SweepResultDto;
+import com.ftn.sbnz.service.dtos.SystemDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every combination of a parameter grid against a base system state, side by side on a bounded executor.
+ * <p>
+ * Scenarios always run in fast-forward mode and are not traced. Each runs on its own session of a pool that
+ * is kept apart from the /schedule pool and has one session per thread, so a scenario never waits for a session
+ * and sweeps never hold up interactive simulations. All sessions of a policy share its one compiled KieBase.
+ */
+@Service
+public class ParameterSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParameterSweepService.class);
+    private static final long BORROW_TIMEOUT_MILLIS = 1000;
+
+    private final SampleAppService sampleService;
+    private final int threads;
+    private final int maxScenarios;
+    private final int queueCapacity;
+    private final KieSessionPool sessionPool;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ParameterSweepService(SampleAppService sampleService,
+                                 @Value("${scheduler.sweep.threads:0}") int threads,
+                                 @Value("${scheduler.sweep.max-scenarios:256}") int maxScenarios,
+                                 @Value("${scheduler.sweep.queue-capacity:1024}") int queueCapacity) {
+        this.sampleService = sampleService;
+        // zero uses every available core
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxScenarios = maxScenarios;
+        this.queueCapacity = queueCapacity;
+        this.sessionPool = new KieSessionPool(this.threads, BORROW_TIMEOUT_MILLIS);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "sweep-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs every scenario of the sweep and waits for all of them.
+     *
+     * @throws InvalidSweepException   when the base system is missing or a scenario would get no cores, memory or quantum
+     * @throws SweepTooLargeException  when the grid has more than the allowed number of scenarios
+     * @throws SweepQueueFullException when other sweeps leave no room for all of its scenarios
+     */
+    public SweepResultDto run(SweepRequestDto request) {
+        List<SystemStateDto> scenarios = scenarios(request);
+        if (scenarios.size() > maxScenarios) {
+            throw new SweepTooLargeException(scenarios.size(), maxScenarios);
+        }
+
+        long start = System.nanoTime();
+        List<Future<ScenarioResultDto>> futures = new ArrayList<>(scenarios.size());
+        try {
+            for (SystemStateDto scenario : scenarios) {
+                futures.add(executor.submit(() -> runScenario(scenario)));
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(futures);
+            throw new SweepQueueFullException(queueCapacity);
+        }
+
+        List<ScenarioResultDto> results = new ArrayList<>(futures.size());
+        for (Future<ScenarioResultDto> future : futures) {
+            results.add(await(future, futures));
+        }
+
+        double wallTimeMillis = (System.nanoTime() - start) / 1_000_000.0;
+        double scenarioWallTimeMillis = results.stream().mapToDouble(ScenarioResultDto::getWallTimeMillis).sum();
+        long rulesFired = results.stream().mapToLong(ScenarioResultDto::getRulesFired).sum();
+        log.info("Swept {} scenarios on {} threads in {} ms", results.size(), threads, wallTimeMillis);
+
+        return new SweepResultDto(results, threads, rulesFired, wallTimeMillis,
+                wallTimeMillis > 0 ? scenarioWallTimeMillis / wallTimeMillis : 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        sessionPool.close();
+    }
+
+    private ScenarioResultDto runScenario(SystemStateDto scenario) {
+        long start = System.nanoTime();
+        int[] finished = {0};
+        EventListDto result = sampleService.runScenario(scenario, sessionPool, firedRule -> {
+            if (firedRule.getEventType() == EventType.PROCESS_FINISHED) {
+                finished[0]++;
+            }
+        });
+
+        SystemDto system = scenario.getSystem();
+        return new ScenarioResultDto(
+                scenario.getPolicy(),
+                system.getCpuCores(),
+                system.getTotalMemory(),
+                system.getQuantum(),
+                result.getSeed(),
+                result.getRulesFired(),
+                result.getTotalEvents(),
+                finished[0],
+                result.getVirtualTime(),
+                result.getStatistics().getTurnaround(),
+                result.getStatistics().getUtilization(),
+                (System.nanoTime() - start) / 1_000_000.0
+        );
+    }
+
+    private static ScenarioResultDto await(Future<ScenarioResultDto> future, List<Future<ScenarioResultDto>> sweep) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(sweep);
+            throw new IllegalStateException("Interrupted while waiting for the sweep", e);
+        } catch (ExecutionException e) {
+            cancel(sweep);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Sweep scenario failed", e.getCause());
+        }
+    }
+
+    // a scenario that already runs cannot be stopped in fast-forward mode, only the queued ones are dropped
+    private static void cancel(List<Future<ScenarioResultDto>> futures) {
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    private static List<SystemStateDto> scenarios(SweepRequestDto request) {
+        SystemStateDto base = request.getBase();
+        if (base == null || base.getSystem() == null) {
+            throw new InvalidSweepException("Sweep has no base system");
+        }
+        SweepGridDto grid = request.getGrid() != null ? request.getGrid() : new SweepGridDto();
+        requireValues("policies", values(grid.getPolicies(), base.getPolicy()));
+        requirePositive("cpuCores", values(grid.getCpuCores(), base.getSystem().getCpuCores()));
+        requirePositive("totalMemory", values(grid.getTotalMemory(), base.getSystem().getTotalMemory()));
+        requirePositive("quantum", values(grid.getQuantum(), base.getSystem().getQuantum()));
+        requireValues("seeds", grid.getSeeds() != null ? grid.getSeeds() : List.of());
+        // without seeds every scenario shares one random seed, so the configurations stay comparable
+        long baseSeed = base.getSeed() != null ? base.getSeed() : ThreadLocalRandom.current().nextLong();
+
+        List<SystemStateDto> scenarios = new ArrayList<>();
+        for (SchedulingPolicy policy : values(grid.getPolicies(), base.getPolicy())) {
+            for (int cpuCores : values(grid.getCpuCores(), base.getSystem().getCpuCores())) {
+                for (int totalMemory : values(grid.getTotalMemory(), base.getSystem().getTotalMemory())) {
+                    for (int quantum : values(grid.getQuantum(), base.getSystem().getQuantum())) {
+                        for (long seed : values(grid.getSeeds(), baseSeed)) {
+                            SystemDto system = new SystemDto();
+                            system.setCpuCores(cpuCores);
+                            system.setTotalMemory(totalMemory);
+                            system.setQuantum(quantum);
+                            system.setTimeSlice(base.getSystem().getTimeSlice());
+
+                            SystemStateDto scenario = new SystemStateDto();
+                            scenario.setSystem(system);
+                            // the process list is only read, every session builds its own process facts from it
+                            scenario.setProcesses(base.getProcesses());
+                            scenario.setMode(SimulationMode.FAST_FORWARD);
+                            scenario.setPolicy(policy);
+                            scenario.setSeed(seed);
+                            scenarios.add(scenario);
+                        }
+                    }
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    private static <T> List<T> values(List<T> grid, T base) {
+        return grid == null || grid.isEmpty() ? Collections.singletonList(base) : grid;
+    }
+
+    private static void requireValues(String name, List<?> values) {
+        if (values.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidSweepException("Sweep " + name + " have a missing value");
+        }
+    }
+
+    private static void requirePositive(String name, List<Integer> values) {
+        requireValues(name, values);
+        if (values.stream().anyMatch(value -> value <= 0)) {
+            throw new InvalidSweepException("Sweep " + name + " must be positive, got " + values);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.sweep;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many sweep scenarios are queued, retry later")
+public class SweepQueueFullException extends RuntimeException {
+
+    public SweepQueueFullException(int capacity) {
+        super("Sweep queue is full (capacity " + capacity + ")");
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.sweep;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "The sweep grid has too many scenarios")
+public class SweepTooLargeException extends RuntimeException {
+
+    public SweepTooLargeException(int scenarios, int maxScenarios) {
+        super("Sweep has " + scenarios + " scenarios, at most " + maxScenarios + " are allowed");
+    }
+}
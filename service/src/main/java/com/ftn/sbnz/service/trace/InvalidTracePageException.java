@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.trace;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Trace pages need a non-negative offset and a limit of 1 to 10000")
+public class InvalidTracePageException extends RuntimeException {
+
+    public InvalidTracePageException(long offset, int limit) {
+        super("Invalid trace page: offset " + offset + ", limit " + limit);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ftn.sbnz.service.trace;
+
+import org.kie.api.KieBase;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.definition.rule.Rule;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ids of the rules of a KieBase: the position of the rule in package and name order.
+ */
+final class RuleTable {
+
+    private final Map<Rule, Integer> ids = new IdentityHashMap<>();
+    private final List<String> names;
+
+    RuleTable(KieBase kieBase) {
+        List<Rule> ordered = kieBase.getKiePackages().stream()
+                .map(KiePackage::getRules)
+                .flatMap(packageRules -> packageRules.stream())
+                .sorted(Comparator.comparing(Rule::getPackageName).thenComparing(Rule::getName))
+                .collect(Collectors.toList());
+
+        for (int id = 0; id < ordered.size(); id++) {
+            ids.put(ordered.get(id), id);
+        }
+        this.names = ordered.stream().map(Rule::getName).collect(Collectors.toList());
+    }
+
+    Integer id(Rule rule) {
+        return ids.get(rule);
+    }
+
+    List<String> names() {
+        return names;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ftn.sbnz.service.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ftn.sbnz.service.trace.TraceFormat.*;
+
+/**
+ * One series of memory-mapped segments of a trace, a new segment is started when one is full.
+ * A record is written by claiming the current segment, putting the record at {@link #offset()} and committing it.
+ */
+final class SegmentWriter {
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentBytes;
+    private final int recordsPerSegment;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int segmentRecords;
+
+    SegmentWriter(Path directory, String prefix, int segmentBytes) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.recordsPerSegment = (segmentBytes - HEADER_BYTES) / RECORD_BYTES;
+        this.segmentBytes = HEADER_BYTES + recordsPerSegment * RECORD_BYTES;
+        roll();
+    }
+
+    MappedByteBuffer claim() {
+        if (segmentRecords == recordsPerSegment) {
+            roll();
+        }
+        return segment;
+    }
+
+    int offset() {
+        return HEADER_BYTES + segmentRecords * RECORD_BYTES;
+    }
+
+    void commit() {
+        segmentRecords++;
+        // readers trust the count, not the size of the file, which is allocated for a full segment
+        segment.putInt(COUNT_OFFSET, segmentRecords);
+    }
+
+    void close() {
+        segment = null;
+    }
+
+    private void roll() {
+        segmentIndex++;
+        segmentRecords = 0;
+
+        // the mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(directory.resolve(segmentName(prefix, segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start trace segment " + prefix + segmentIndex + " in " + directory, e);
+        }
+
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, RECORD_BYTES);
+        segment.putInt(COUNT_OFFSET, 0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ftn.sbnz.service.trace;
+
+/**
+ * Layout of a trace. A trace is a directory with the names of the rules, one per line with the zero-based line index
+ * as the rule id, the system state the simulation started from, and two series of segment files with
+ * fixed-size records: the rule firings and the events fed into the session, each in the order they happened.
+ * <p>
+ * A segment starts with a header: magic, version, record size and the number of records written so far.
+ * A firing record is the virtual time (8 bytes), rule id, process id and core id (4 bytes each), then the process
+ * status before and after the firing and the core status before and after it (1 byte each, an ordinal).
+ * Ids and statuses the rule does not bind are {@link #NONE}.
+ * <p>
+ * An event record is the virtual time and the number of firings before the event was inserted (8 bytes each),
+ * then the event type and its value (4 bytes each): the process id, or the bits of the temperature.
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x53425452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int COUNT_OFFSET = 12;
+    static final int RECORD_BYTES = 24;
+    static final int NONE = -1;
+
+    static final int EVENT_TEMPERATURE = 0;
+    static final int EVENT_PAGE_FAULT = 1;
+    static final int EVENT_IO = 2;
+
+    static final String RULES_FILE = "rules.txt";
+    static final String SYSTEM_FILE = "system.json";
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String EVENTS_PREFIX = "events-";
+    static final String SEGMENT_SUFFIX = ".trace";
+
+    private TraceFormat() {
+    }
+
+    static String segmentName(String prefix, int index) {
+        return String.format("%s%06d%s", prefix, index, SEGMENT_SUFFIX);
+    }
+}
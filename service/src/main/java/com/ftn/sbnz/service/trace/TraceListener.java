@@ -0,0 +1,143 @@
+package com.ftn.sbnz.service.trace;
+
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.Process;
+import org.drools.core.reteoo.RuleTerminalNode;
+import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.core.rule.Declaration;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.time.SessionClock;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.ftn.sbnz.service.trace.TraceFormat.*;
+
+/**
+ * Writes a record for every rule firing of a session, with the status of the process bound to {@code $p}
+ * and the core bound to {@code $core} before and after the consequence.
+ * The temperature, page fault and I/O events inserted into the session are recorded as well, so the run can be replayed.
+ */
+class TraceListener extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    private static final String PROCESS_DECLARATION = "$p";
+    private static final String CORE_DECLARATION = "$core";
+
+    private final TraceWriter writer;
+    private final SessionClock clock;
+    private final RuleTable rules;
+    // Match.getDeclarationValue collects the declarations of the rule into a new map on every call,
+    // so the declarations are looked up once per terminal node and the facts read straight off the tuple
+    private final Map<TerminalNode, TracedNode> nodes = new IdentityHashMap<>();
+
+    // the firing in progress, kept in fields so tracing a firing allocates nothing
+    private TracedNode node;
+    private Process process;
+    private CpuCore core;
+    private int processBefore;
+    private int coreBefore;
+
+    TraceListener(TraceWriter writer, SessionClock clock, RuleTable rules) {
+        this.writer = writer;
+        this.clock = clock;
+        this.rules = rules;
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        RuleTerminalNodeLeftTuple<?> match = (RuleTerminalNodeLeftTuple<?>) event.getMatch();
+        node = nodes.get(match.getTerminalNode());
+        if (node == null) {
+            node = trace((RuleTerminalNode) match.getTerminalNode());
+            nodes.put(match.getTerminalNode(), node);
+        }
+
+        process = node.process != null ? (Process) match.get(node.process).getObject() : null;
+        core = node.core != null ? (CpuCore) match.get(node.core).getObject() : null;
+        processBefore = process != null ? process.getStatus().ordinal() : NONE;
+        coreBefore = core != null ? core.getStatus().ordinal() : NONE;
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        if (node == null || node.ruleId == NONE) {
+            return;
+        }
+
+        writer.append(
+                clock.getCurrentTime(),
+                node.ruleId,
+                process != null ? process.getId() : NONE,
+                core != null ? core.getId() : NONE,
+                processBefore,
+                process != null ? process.getStatus().ordinal() : NONE,
+                coreBefore,
+                core != null ? core.getStatus().ordinal() : NONE
+        );
+        node = null;
+        process = null;
+        core = null;
+    }
+
+    // rules never insert these events, every one of them came from the event streams of the simulation
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        Object fact = event.getObject();
+        if (fact instanceof CpuTemperatureEvent) {
+            writer.appendEvent(clock.getCurrentTime(), EVENT_TEMPERATURE,
+                    Float.floatToIntBits(((CpuTemperatureEvent) fact).getTemperature()));
+        } else if (fact instanceof PageFaultEvent) {
+            writer.appendEvent(clock.getCurrentTime(), EVENT_PAGE_FAULT, ((PageFaultEvent) fact).getProcessId());
+        } else if (fact instanceof IOEvent) {
+            writer.appendEvent(clock.getCurrentTime(), EVENT_IO, ((IOEvent) fact).getProcessId());
+        }
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+    }
+
+    private TracedNode trace(RuleTerminalNode terminalNode) {
+        Integer ruleId = rules.id(terminalNode.getRule());
+        Declaration process = null;
+        Declaration core = null;
+        for (Declaration declaration : terminalNode.getAllDeclarations()) {
+            if (!declaration.isPatternDeclaration()) {
+                continue;
+            }
+            if (declaration.getIdentifier().equals(PROCESS_DECLARATION)) {
+                process = declaration;
+            } else if (declaration.getIdentifier().equals(CORE_DECLARATION)) {
+                core = declaration;
+            }
+        }
+        return new TracedNode(ruleId != null ? ruleId : NONE, process, core);
+    }
+
+    private static class TracedNode {
+
+        private final int ruleId;
+        private final Declaration process;
+        private final Declaration core;
+
+        TracedNode(int ruleId, Declaration process, Declaration core) {
+            this.ruleId = ruleId;
+            this.process = process;
+            this.core = core;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ftn.sbnz.service.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.dtos.TracePageDto;
+import org.kie.api.KieBase;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a trace of every simulation on disk, one directory per simulation under the trace directory.
+ * Only the latest {@code retainedTraces} traces are kept, older ones are deleted as new ones start.
+ */
+@Component
+public class TraceLog {
+
+    public static final int MAX_PAGE = 10000;
+
+    private static final Logger log = LoggerFactory.getLogger(TraceLog.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int retainedTraces;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<KieBase, RuleTable> ruleTables = new ConcurrentHashMap<>();
+
+    public TraceLog(@Value("${scheduler.trace.directory:${java.io.tmpdir}/scheduler-traces}") String directory,
+                    @Value("${scheduler.trace.segment-bytes:1048576}") int segmentBytes,
+                    @Value("${scheduler.trace.retained:100}") int retainedTraces) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.retainedTraces = retainedTraces;
+    }
+
+    public TraceWriter open(KieSession kieSession) {
+        return open(kieSession, null, null);
+    }
+
+    /**
+     * Starts a trace of the session's rule firings and inserted events. The listener goes with the other listeners
+     * when the session is returned to the pool; the writer has to be closed by the caller.
+     *
+     * @param systemState kept with the trace so it can be replayed, a trace without it can only be read
+     */
+    public TraceWriter open(KieSession kieSession, SystemStateDto systemState) {
+        return open(kieSession, systemState, null);
+    }
+
+    /**
+     * @param kept a trace that must not be deleted to make room for the new one
+     */
+    TraceWriter open(KieSession kieSession, SystemStateDto systemState, Path kept) {
+        deleteOldTraces(kept);
+
+        // ids sort in the order the traces were started
+        String id = String.format("%013d-%06d", System.currentTimeMillis(), sequence.incrementAndGet() % 1_000_000);
+        RuleTable rules = ruleTables.computeIfAbsent(kieSession.getKieBase(), RuleTable::new);
+        TraceWriter writer = new TraceWriter(id, directory.resolve(id), segmentBytes, rules.names());
+        if (systemState != null) {
+            try {
+                writeSystemState(directory.resolve(id), systemState);
+            } catch (RuntimeException e) {
+                writer.close();
+                throw e;
+            }
+        }
+
+        TraceListener listener = new TraceListener(writer, kieSession.getSessionClock(), rules);
+        kieSession.addEventListener((AgendaEventListener) listener);
+        kieSession.addEventListener((RuleRuntimeEventListener) listener);
+        return writer;
+    }
+
+    /**
+     * A page of the firings of a trace, so reading a long trace never holds all of its records at once.
+     *
+     * @throws InvalidTracePageException for a negative offset or a limit outside 1 to {@link #MAX_PAGE}
+     */
+    public TracePageDto read(String traceId, long offset, int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE) {
+            throw new InvalidTracePageException(offset, limit);
+        }
+
+        Path trace = resolve(traceId);
+        return new TracePageDto(traceId, offset, TraceReader.count(trace), TraceReader.read(trace, offset, limit));
+    }
+
+    Path resolve(String traceId) {
+        Path trace = directory.resolve(traceId).normalize();
+        if (!trace.getParent().equals(directory.normalize()) || !Files.isDirectory(trace)) {
+            throw new TraceNotFoundException(traceId);
+        }
+        return trace;
+    }
+
+    /**
+     * @return null for a trace that was started without its system state
+     */
+    SystemStateDto readSystemState(Path trace) {
+        Path file = trace.resolve(TraceFormat.SYSTEM_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(file.toFile(), SystemStateDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the system state of trace " + trace, e);
+        }
+    }
+
+    private static void writeSystemState(Path trace, SystemStateDto systemState) {
+        try {
+            objectMapper.writeValue(trace.resolve(TraceFormat.SYSTEM_FILE).toFile(), systemState);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the system state of trace " + trace, e);
+        }
+    }
+
+    private synchronized void deleteOldTraces(Path kept) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Path> traces;
+        try (Stream<Path> files = Files.list(directory)) {
+            traces = files
+                    .filter(Files::isDirectory)
+                    .filter(trace -> !trace.normalize().equals(kept))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list traces in " + directory, e);
+        }
+
+        // room for the trace that is about to start
+        for (int i = 0; i <= traces.size() - retainedTraces; i++) {
+            delete(traces.get(i));
+        }
+    }
+
+    private static void delete(Path trace) {
+        try (Stream<Path> files = Files.walk(trace)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete trace {}: {}", trace, e.getMessage());
+        }
+    }
+}
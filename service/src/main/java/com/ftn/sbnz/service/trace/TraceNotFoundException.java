@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.trace;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND, reason = "Unknown trace id")
+public class TraceNotFoundException extends RuntimeException {
+
+    public TraceNotFoundException(String traceId) {
+        super("Unknown trace: " + traceId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftn.sbnz.service.trace;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Trace was recorded without its system state")
+public class TraceNotReplayableException extends RuntimeException {
+
+    public TraceNotReplayableException(String traceId) {
+        super("Trace cannot be replayed: " + traceId);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ftn.sbnz.service.trace;
+
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ftn.sbnz.service.trace.TraceFormat.*;
+
+/**
+ * Reads the firings and events of a trace back in the order they were written.
+ */
+public final class TraceReader {
+
+    private static final ProcessStatus[] PROCESS_STATUSES = ProcessStatus.values();
+    private static final CpuCoreStatus[] CORE_STATUSES = CpuCoreStatus.values();
+
+    private TraceReader() {
+    }
+
+    /**
+     * The number of firings in the trace, from the segment headers alone.
+     */
+    public static long count(Path directory) {
+        try {
+            long count = 0;
+            for (Path file : segments(directory, SEGMENT_PREFIX)) {
+                count += map(file).getInt(COUNT_OFFSET);
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read trace " + directory, e);
+        }
+    }
+
+    /**
+     * Up to {@code limit} firings from the given index on. Records have a fixed size, so only the segments
+     * that hold them are read.
+     */
+    public static List<TraceRecord> read(Path directory, long offset, int limit) {
+        List<TraceRecord> records = new ArrayList<>(Math.min(limit, 1024));
+        try {
+            List<String> rules = Files.readAllLines(directory.resolve(RULES_FILE));
+            long skipped = offset;
+            for (Path file : segments(directory, SEGMENT_PREFIX)) {
+                if (records.size() >= limit) {
+                    break;
+                }
+                MappedByteBuffer segment = map(file);
+                int count = segment.getInt(COUNT_OFFSET);
+                if (skipped >= count) {
+                    skipped -= count;
+                    continue;
+                }
+                for (int i = (int) skipped; i < count && records.size() < limit; i++) {
+                    records.add(record(segment, HEADER_BYTES + i * RECORD_BYTES, rules));
+                }
+                skipped = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read trace " + directory, e);
+        }
+        return records;
+    }
+
+    public static void forEach(Path directory, Consumer<TraceRecord> consumer) {
+        try {
+            List<String> rules = Files.readAllLines(directory.resolve(RULES_FILE));
+            readSegments(directory, SEGMENT_PREFIX, (segment, offset) -> consumer.accept(record(segment, offset, rules)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read trace " + directory, e);
+        }
+    }
+
+    public static void forEachEvent(Path directory, Consumer<TracedEvent> consumer) {
+        try {
+            readSegments(directory, EVENTS_PREFIX, (segment, offset) -> consumer.accept(new TracedEvent(
+                    segment.getLong(offset),
+                    segment.getLong(offset + 8),
+                    event(segment.getInt(offset + 16), segment.getInt(offset + 20))
+            )));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the events of trace " + directory, e);
+        }
+    }
+
+    private static void readSegments(Path directory, String prefix, RecordReader reader) throws IOException {
+        for (Path segment : segments(directory, prefix)) {
+            readSegment(segment, reader);
+        }
+    }
+
+    private static List<Path> segments(Path directory, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void readSegment(Path file, RecordReader reader) throws IOException {
+        MappedByteBuffer segment = map(file);
+        int count = segment.getInt(COUNT_OFFSET);
+        for (int i = 0; i < count; i++) {
+            reader.read(segment, HEADER_BYTES + i * RECORD_BYTES);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION || segment.getInt(8) != RECORD_BYTES) {
+            throw new IllegalStateException("Not a version " + VERSION + " trace segment: " + file);
+        }
+        return segment;
+    }
+
+    private static TraceRecord record(MappedByteBuffer segment, int offset, List<String> rules) {
+        return new TraceRecord(
+                segment.getLong(offset),
+                rules.get(segment.getInt(offset + 8)),
+                segment.getInt(offset + 12),
+                segment.getInt(offset + 16),
+                status(PROCESS_STATUSES, segment.get(offset + 20)),
+                status(PROCESS_STATUSES, segment.get(offset + 21)),
+                status(CORE_STATUSES, segment.get(offset + 22)),
+                status(CORE_STATUSES, segment.get(offset + 23))
+        );
+    }
+
+    private static Object event(int type, int value) {
+        switch (type) {
+            case EVENT_TEMPERATURE:
+                return new CpuTemperatureEvent(Float.intBitsToFloat(value));
+            case EVENT_PAGE_FAULT:
+                return new PageFaultEvent(value);
+            case EVENT_IO:
+                return new IOEvent(value);
+            default:
+                throw new IllegalStateException("Unknown trace event type " + type);
+        }
+    }
+
+    private static <T> T status(T[] values, byte ordinal) {
+        return ordinal == NONE ? null : values[ordinal];
+    }
+
+    @FunctionalInterface
+    private interface RecordReader {
+
+        void read(MappedByteBuffer segment, int offset);
+    }
+}
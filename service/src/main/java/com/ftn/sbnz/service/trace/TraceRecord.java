@@ -0,0 +1,23 @@
+package com.ftn.sbnz.service.trace;
+
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A rule firing read back from a trace. Ids are {@code -1} and statuses null when the rule does not bind them.
+ */
+@Data
+@AllArgsConstructor
+public class TraceRecord {
+
+    private long virtualTime;
+    private String rule;
+    private int processId;
+    private int coreId;
+    private ProcessStatus processBefore;
+    private ProcessStatus processAfter;
+    private CpuCoreStatus coreBefore;
+    private CpuCoreStatus coreAfter;
+}
@@ -0,0 +1,163 @@
+package com.ftn.sbnz.service.trace;
+
+import com.ftn.sbnz.service.dtos.ReplayDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.simulation.EventFeed;
+import com.ftn.sbnz.service.simulation.SimulationFacts;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionPseudoClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a recorded simulation again from its trace, without the random event streams.
+ * <p>
+ * The replay starts a new session of the current rule base from the recorded system state and inserts every
+ * recorded event after as many firings as it originally came after, with the pseudo clock moved to its recorded time.
+ * Nothing waits on the wall clock, so a real-time run replays as fast as the engine fires.
+ * The replay is traced like a simulation and its firings are compared with the recorded ones.
+ */
+@Component
+public class TraceReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceReplayer.class);
+    private static final int COMPARE_PAGE = 4096;
+
+    private final TraceLog traceLog;
+
+    @Autowired
+    public TraceReplayer(TraceLog traceLog) {
+        this.traceLog = traceLog;
+    }
+
+    public ReplayDto replay(String traceId) {
+        Path recorded = traceLog.resolve(traceId);
+        SystemStateDto systemState = traceLog.readSystemState(recorded);
+        if (systemState == null) {
+            throw new TraceNotReplayableException(traceId);
+        }
+
+        long recordedFirings = TraceReader.count(recorded);
+        KieSession kieSession = DroolsUtil.getSession(systemState.getPolicy());
+        long start = System.nanoTime();
+        TraceWriter trace = traceLog.open(kieSession, systemState, recorded);
+        long virtualTime;
+
+        try {
+            replay(kieSession, systemState, recorded, trace, recordedFirings);
+            virtualTime = kieSession.getSessionClock().getCurrentTime();
+        } finally {
+            trace.close();
+            kieSession.dispose();
+        }
+
+        double wallTimeMillis = (System.nanoTime() - start) / 1_000_000.0;
+        log.info("Replayed trace {} as {}: {} of {} firings in {} ms", traceId, trace.getId(),
+                trace.getRecords(), recordedFirings, wallTimeMillis);
+
+        ReplayDto replay = compare(new RecordedFirings(recorded, recordedFirings), traceLog.resolve(trace.getId()));
+        replay.setTraceId(traceId);
+        replay.setReplayTraceId(trace.getId());
+        replay.setReplayedFirings(trace.getRecords());
+        replay.setVirtualTime(virtualTime);
+        replay.setWallTimeMillis(wallTimeMillis);
+        return replay;
+    }
+
+    private static void replay(KieSession kieSession, SystemStateDto systemState, Path recorded, TraceWriter trace,
+                               long recordedFirings) {
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        EventFeed feed = new EventFeed(kieSession, 1);
+        SimulationFacts.insert(kieSession, systemState);
+
+        TraceReader.forEachEvent(recorded, event -> {
+            fireUntil(kieSession, trace, event.getFirings());
+
+            long behindMillis = event.getVirtualTime() - clock.getCurrentTime();
+            if (behindMillis > 0) {
+                clock.advanceTime(behindMillis, TimeUnit.MILLISECONDS);
+            }
+            feed.insert(event.getEvent());
+        });
+
+        // one firing past the recording is enough to tell that the replay does not stop where the run did,
+        // and keeps a rule set that never settles from running away
+        fireUntil(kieSession, trace, recordedFirings + 1);
+    }
+
+    // fires until the trace holds the given number of firings or nothing is left to fire
+    private static void fireUntil(KieSession kieSession, TraceWriter trace, long firings) {
+        while (trace.getRecords() < firings) {
+            int limit = (int) Math.min(Integer.MAX_VALUE, firings - trace.getRecords());
+            if (kieSession.fireAllRules(limit) == 0) {
+                return;
+            }
+        }
+    }
+
+    private static ReplayDto compare(RecordedFirings recordedFirings, Path replayed) {
+        ReplayDto replay = new ReplayDto();
+        replay.setRecordedFirings(recordedFirings.count);
+        replay.setMatching(true);
+
+        long[] index = {0};
+        TraceReader.forEach(replayed, record -> {
+            long i = index[0]++;
+            if (!replay.isMatching()) {
+                return;
+            }
+
+            TraceRecord expected = recordedFirings.get(i);
+            if (!record.equals(expected)) {
+                diverge(replay, i, expected, record);
+            }
+        });
+
+        // the replay stopped short of the recording
+        if (replay.isMatching() && index[0] < recordedFirings.count) {
+            diverge(replay, index[0], recordedFirings.get(index[0]), null);
+        }
+        return replay;
+    }
+
+    private static void diverge(ReplayDto replay, long index, TraceRecord recorded, TraceRecord replayed) {
+        replay.setMatching(false);
+        replay.setDivergedAt(index);
+        replay.setRecorded(recorded);
+        replay.setReplayed(replayed);
+    }
+
+    // the recorded firings a page at a time, both traces are read in step so neither is held in memory whole
+    private static class RecordedFirings {
+
+        private final Path trace;
+        private final long count;
+        private List<TraceRecord> page = Collections.emptyList();
+        private long pageStart;
+
+        RecordedFirings(Path trace, long count) {
+            this.trace = trace;
+            this.count = count;
+        }
+
+        // null past the end of the recording
+        TraceRecord get(long index) {
+            if (index >= count) {
+                return null;
+            }
+            if (index < pageStart || index >= pageStart + page.size()) {
+                page = TraceReader.read(trace, index, COMPARE_PAGE);
+                pageStart = index;
+            }
+            return page.get((int) (index - pageStart));
+        }
+    }
+}
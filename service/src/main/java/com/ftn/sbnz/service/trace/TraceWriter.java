@@ -0,0 +1,88 @@
+package com.ftn.sbnz.service.trace;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.ftn.sbnz.service.trace.TraceFormat.*;
+
+/**
+ * Appends the records of one trace to memory-mapped segments, starting a new segment when one is full.
+ * Appending a record only writes into the mapped segment, it does no I/O and allocates nothing;
+ * the operating system writes the pages back. Used by one thread at a time.
+ */
+public class TraceWriter implements AutoCloseable {
+
+    @Getter
+    private final String id;
+    private final SegmentWriter firings;
+    private final SegmentWriter events;
+
+    // number of firings written so far
+    @Getter
+    private long records;
+    @Getter
+    private long eventRecords;
+
+    TraceWriter(String id, Path directory, int segmentBytes, List<String> ruleNames) {
+        if (segmentBytes < HEADER_BYTES + RECORD_BYTES) {
+            throw new IllegalArgumentException("Trace segments must hold at least one record, got " + segmentBytes + " bytes");
+        }
+
+        this.id = id;
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(RULES_FILE), ruleNames);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create trace " + directory, e);
+        }
+        this.firings = new SegmentWriter(directory, SEGMENT_PREFIX, segmentBytes);
+        this.events = new SegmentWriter(directory, EVENTS_PREFIX, segmentBytes);
+    }
+
+    public void append(long virtualTime, int ruleId, int processId, int coreId,
+                       int processBefore, int processAfter, int coreBefore, int coreAfter) {
+        MappedByteBuffer segment = firings.claim();
+        int offset = firings.offset();
+        segment.putLong(offset, virtualTime);
+        segment.putInt(offset + 8, ruleId);
+        segment.putInt(offset + 12, processId);
+        segment.putInt(offset + 16, coreId);
+        segment.put(offset + 20, (byte) processBefore);
+        segment.put(offset + 21, (byte) processAfter);
+        segment.put(offset + 22, (byte) coreBefore);
+        segment.put(offset + 23, (byte) coreAfter);
+
+        firings.commit();
+        records++;
+    }
+
+    /**
+     * Records an event inserted into the session after the firings written so far.
+     */
+    public void appendEvent(long virtualTime, int type, int value) {
+        MappedByteBuffer segment = events.claim();
+        int offset = events.offset();
+        segment.putLong(offset, virtualTime);
+        segment.putLong(offset + 8, records);
+        segment.putInt(offset + 16, type);
+        segment.putInt(offset + 20, value);
+
+        events.commit();
+        eventRecords++;
+    }
+
+    /**
+     * Drops the mappings of the last segments, the files stay as they are.
+     */
+    @Override
+    public void close() {
+        firings.close();
+        events.close();
+    }
+}
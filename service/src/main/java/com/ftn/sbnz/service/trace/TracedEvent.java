@@ -0,0 +1,17 @@
+package com.ftn.sbnz.service.trace;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An event read back from a trace, with the number of rule firings that came before its insertion.
+ */
+@Data
+@AllArgsConstructor
+public class TracedEvent {
+
+    private long virtualTime;
+    private long firings;
+    // a CpuTemperatureEvent, PageFaultEvent or IOEvent
+    private Object event;
+}
@@ -0,0 +1,23 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ftn.sbnz.FactInsert")
+@Label("Fact Insert")
+@Category({"Scheduler", "Drools"})
+@StackTrace(false)
+public class FactInsertEvent extends Event {
+
+    @Label("Entry Point")
+    public String entryPoint;
+
+    @Label("Fact Type")
+    public String factType;
+
+    @Label("Session Id")
+    public long sessionId;
+}
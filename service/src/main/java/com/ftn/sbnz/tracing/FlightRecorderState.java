@@ -0,0 +1,40 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Whether the JVM is running a flight recording, kept up to date by the recorder itself
+ * so checking it does not initialize the recorder.
+ */
+final class FlightRecorderState {
+
+    private static volatile boolean recording;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                update();
+            }
+        });
+        // recordings started on the command line were running before the listener was added
+        if (FlightRecorder.isInitialized()) {
+            update();
+        }
+    }
+
+    private FlightRecorderState() {
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+
+    private static void update() {
+        recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(running -> running.getState() == RecordingState.RUNNING);
+    }
+}
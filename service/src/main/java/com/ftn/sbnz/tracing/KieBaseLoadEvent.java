@@ -0,0 +1,22 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ftn.sbnz.KieBaseLoad")
+@Label("KieBase Load")
+@Description("Compiling or deserializing the rule base")
+@Category({"Scheduler", "Drools"})
+@StackTrace(false)
+public class KieBaseLoadEvent extends Event {
+
+    @Label("Rule Set Hash")
+    public String hash;
+
+    @Label("Precompiled")
+    public boolean precompiled;
+}
@@ -0,0 +1,26 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ftn.sbnz.RuleFiring")
+@Label("Rule Firing")
+@Description("Execution of the consequence of a rule")
+@Category({"Scheduler", "Drools"})
+@StackTrace(false)
+public class RuleFiringEvent extends Event {
+
+    @Label("Rule")
+    public String rule;
+
+    @Label("Process Id")
+    @Description("Process bound to $p, -1 when the rule binds none")
+    public int processId;
+
+    @Label("Session Id")
+    public long sessionId;
+}
@@ -0,0 +1,24 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ftn.sbnz.SessionLifecycle")
+@Label("Session Lifecycle")
+@Category({"Scheduler", "Drools"})
+@StackTrace(false)
+public class SessionLifecycleEvent extends Event {
+
+    public static final String CREATED = "created";
+    public static final String RESET = "reset";
+    public static final String DISPOSED = "disposed";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Session Id")
+    public long sessionId;
+}
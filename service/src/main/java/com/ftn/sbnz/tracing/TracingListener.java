@@ -0,0 +1,115 @@
+package com.ftn.sbnz.tracing;
+
+import com.ftn.sbnz.model.models.Process;
+import org.drools.core.common.InternalFactHandle;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.Match;
+
+/**
+ * Emits a {@link RuleFiringEvent} for every rule firing and a {@link FactInsertEvent} for every insert of a session.
+ * <p>
+ * Any session listener makes Drools build an event object for every firing and fact change, which costs
+ * about a sixth of the firing rate even when nothing is recorded. So the listener is only installed on sessions
+ * created while a flight recording is running; pooled sessions pick it up or drop it when they are borrowed.
+ */
+public class TracingListener extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    private static final String PROCESS_DECLARATION = "$p";
+
+    private final long sessionId;
+    private RuleFiringEvent firing;
+
+    private TracingListener(long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Installs the listener when a flight recording is running.
+     */
+    public static void install(KieSession kieSession) {
+        if (!FlightRecorderState.isRecording()) {
+            return;
+        }
+
+        TracingListener listener = new TracingListener(kieSession.getIdentifier());
+        kieSession.addEventListener((AgendaEventListener) listener);
+        kieSession.addEventListener((RuleRuntimeEventListener) listener);
+    }
+
+    /**
+     * Installs the listener when a flight recording is running and removes it when none is, so a session that sat
+     * idle while a recording started or stopped follows it.
+     */
+    public static void update(KieSession kieSession) {
+        TracingListener installed = null;
+        for (AgendaEventListener listener : kieSession.getAgendaEventListeners()) {
+            if (listener instanceof TracingListener) {
+                installed = (TracingListener) listener;
+                break;
+            }
+        }
+
+        if (installed == null) {
+            install(kieSession);
+        } else if (!FlightRecorderState.isRecording()) {
+            kieSession.removeEventListener((AgendaEventListener) installed);
+            kieSession.removeEventListener((RuleRuntimeEventListener) installed);
+        }
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        RuleFiringEvent firing = new RuleFiringEvent();
+        if (firing.isEnabled()) {
+            firing.begin();
+            this.firing = firing;
+        }
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        RuleFiringEvent firing = this.firing;
+        this.firing = null;
+        if (firing == null) {
+            return;
+        }
+
+        firing.end();
+        if (firing.shouldCommit()) {
+            Match match = event.getMatch();
+            firing.rule = match.getRule().getName();
+            firing.processId = match.getDeclarationIds().contains(PROCESS_DECLARATION)
+                    ? ((Process) match.getDeclarationValue(PROCESS_DECLARATION)).getId()
+                    : -1;
+            firing.sessionId = sessionId;
+            firing.commit();
+        }
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        FactInsertEvent insert = new FactInsertEvent();
+        if (insert.shouldCommit()) {
+            insert.entryPoint = ((InternalFactHandle) event.getFactHandle()).getEntryPointName();
+            insert.factType = event.getObject().getClass().getSimpleName();
+            insert.sessionId = sessionId;
+            insert.commit();
+        }
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+    }
+}
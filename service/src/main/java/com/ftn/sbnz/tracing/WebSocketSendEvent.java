@@ -0,0 +1,25 @@
+package com.ftn.sbnz.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ftn.sbnz.WebSocketSend")
+@Label("WebSocket Send")
+@Category({"Scheduler", "WebSocket"})
+@StackTrace(false)
+public class WebSocketSendEvent extends Event {
+
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Sent")
+    public boolean sent;
+}
@@ -1,50 +1,118 @@
 package com.ftn.sbnz.utils;
 
-import org.drools.decisiontable.ExternalSpreadsheetCompiler;
+import com.ftn.sbnz.kjar.RuleSet;
+import com.ftn.sbnz.listener.ProcessQueueListener;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.tracing.KieBaseLoadEvent;
+import com.ftn.sbnz.tracing.SessionLifecycleEvent;
+import com.ftn.sbnz.tracing.TracingListener;
 import org.kie.api.KieBase;
-import org.kie.api.KieBaseConfiguration;
 import org.kie.api.KieServices;
-import org.kie.api.conf.EventProcessingOption;
-import org.kie.api.io.Resource;
-import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
-import org.kie.internal.io.ResourceFactory;
-import org.kie.internal.utils.KieHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DroolsUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(DroolsUtil.class);
+
+    // compiled bases keyed by the content hash of the rule sources they were built from
+    private static final Map<String, KieBase> kieBases = new ConcurrentHashMap<>();
+    // policy of every base loaded here, bases compiled elsewhere schedule by priority
+    private static final Map<KieBase, SchedulingPolicy> policies = new ConcurrentHashMap<>();
+
     public static KieSession getSession() {
-        KieHelper kieHelper = new KieHelper();
-
-        // adding template ruleset
-        InputStream priorityBoostingTemplate = DroolsUtil.class.getResourceAsStream("/rules/template/priority-boosting.drt");
-        InputStream data = DroolsUtil.class.getResourceAsStream("/rules/template/priority-boosting.xls");
-        ExternalSpreadsheetCompiler converter = new ExternalSpreadsheetCompiler();
-        String priorityBoostingRules = converter.compile(data, priorityBoostingTemplate, 2, 2);
-        kieHelper.addContent(priorityBoostingRules, ResourceType.DRL);
-
-        InputStream processAcceptanceTemplate = DroolsUtil.class.getResourceAsStream("/rules/template/process-acceptance.drt");
-        data = DroolsUtil.class.getResourceAsStream("/rules/template/process-acceptance.xls");
-        String processAcceptanceRules = converter.compile(data, processAcceptanceTemplate, 2, 2);
-        kieHelper.addContent(processAcceptanceRules, ResourceType.DRL);
-
-        // adding regular ruleset
-        InputStream regularRules = DroolsUtil.class.getResourceAsStream("/rules/forward/forward.drl");
-        Resource regularRulesRes = ResourceFactory.newInputStreamResource(regularRules);
-        kieHelper.addResource(regularRulesRes, ResourceType.DRL);
-
-        // CEP configuration
-        KieBaseConfiguration kBaseConfig = KieServices.Factory.get().newKieBaseConfiguration();
-        kBaseConfig.setOption(EventProcessingOption.STREAM);
-
-        KieSessionConfiguration kSessionConfig = KieServices.Factory.get().newKieSessionConfiguration();
-        kSessionConfig.setOption(ClockTypeOption.get("pseudo"));
-
-        KieBase kBase = kieHelper.build(kBaseConfig);
-        return kBase.newKieSession(kSessionConfig, null);
+        return getSession(getKieBase());
+    }
+
+    public static KieSession getSession(SchedulingPolicy policy) {
+        return getSession(getKieBase(policy));
+    }
+
+    /**
+     * A session of the given base, configured like the simulation sessions of the shipped rule base.
+     */
+    public static KieSession getSession(KieBase kieBase) {
+        SessionLifecycleEvent created = new SessionLifecycleEvent();
+        created.begin();
+
+        KieSession kieSession = kieBase.newKieSession(SessionConfiguration.INSTANCE, null);
+        ProcessQueueListener.install(kieSession, getPolicy(kieBase));
+        TracingListener.install(kieSession);
+
+        created.action = SessionLifecycleEvent.CREATED;
+        created.sessionId = kieSession.getIdentifier();
+        created.commit();
+        return kieSession;
+    }
+
+    public static KieBase getKieBase() {
+        return getKieBase(SchedulingPolicy.PRIORITY);
+    }
+
+    public static KieBase getKieBase(SchedulingPolicy policy) {
+        RuleSet ruleSet = Rules.INSTANCES.get(policy);
+        return kieBases.computeIfAbsent(ruleSet.getHash(), hash -> {
+            KieBase kieBase = load(ruleSet);
+            policies.put(kieBase, policy);
+            return kieBase;
+        });
+    }
+
+    public static SchedulingPolicy getPolicy(KieBase kieBase) {
+        return policies.getOrDefault(kieBase, SchedulingPolicy.PRIORITY);
+    }
+
+    private static KieBase load(RuleSet ruleSet) {
+        long start = System.nanoTime();
+        KieBaseLoadEvent loadEvent = new KieBaseLoadEvent();
+        loadEvent.begin();
+        KieBase kBase;
+
+        // the kjar build serializes the rule base, compiling is only needed when the sources changed since
+        if (ruleSet.isPrecompiled()) {
+            kBase = ruleSet.loadPrecompiled();
+            log.info("Loaded precompiled {} rule base {} in {} ms", ruleSet.getPolicy(), ruleSet.getHash(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            kBase = ruleSet.compile();
+            log.info("Compiled {} rule base {} in {} ms", ruleSet.getPolicy(), ruleSet.getHash(), (System.nanoTime() - start) / 1_000_000);
+        }
+
+        loadEvent.hash = ruleSet.getHash();
+        loadEvent.precompiled = ruleSet.isPrecompiled();
+        loadEvent.commit();
+
+        return kBase;
+    }
+
+    private static class SessionConfiguration {
+
+        private static final KieSessionConfiguration INSTANCE = create();
+
+        private static KieSessionConfiguration create() {
+            KieSessionConfiguration kSessionConfig = KieServices.Factory.get().newKieSessionConfiguration();
+            kSessionConfig.setOption(ClockTypeOption.get("pseudo"));
+            return kSessionConfig;
+        }
+    }
+
+    // rule sources are read from the classpath only once
+    private static class Rules {
+
+        private static final Map<SchedulingPolicy, RuleSet> INSTANCES = create();
+
+        private static Map<SchedulingPolicy, RuleSet> create() {
+            Map<SchedulingPolicy, RuleSet> ruleSets = new EnumMap<>(SchedulingPolicy.class);
+            for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+                ruleSets.put(policy, RuleSet.fromClasspath(policy));
+            }
+            return ruleSets;
+        }
     }
 }
@@ -0,0 +1,99 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.simulation.EventBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBufferTests {
+
+    @Test
+    public void testDrainsInOfferOrderAcrossLaps() {
+        EventBuffer<Integer> buffer = new EventBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(lap * 3 + i));
+            }
+            buffer.drain(drained::add);
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), drained);
+    }
+
+    @Test
+    public void testFullBufferDropsInsteadOfBlocking() {
+        EventBuffer<Integer> buffer = new EventBuffer<>(5);
+        List<Integer> drained = new ArrayList<>();
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (buffer.offer(i)) {
+                accepted++;
+            }
+        }
+        int count = buffer.drain(drained::add);
+
+        assertAll(
+                // rounded up to a power of two
+                () -> assertEquals(8, buffer.capacity()),
+                () -> assertEquals(8, count),
+                () -> assertEquals(2, buffer.getDropped()),
+                () -> assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), drained),
+                // the drained slots are free again
+                () -> assertTrue(buffer.offer(10))
+        );
+        assertEquals(8, accepted);
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        EventBuffer<long[]> buffer = new EventBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        // every producer's elements must come out in the order that producer offered them
+        int[] next = new int[producers];
+        long drained = 0;
+        boolean inOrder = true;
+        while (drained < (long) producers * perProducer) {
+            List<long[]> batch = new ArrayList<>();
+            drained += buffer.drain(batch::add);
+            for (long[] element : batch) {
+                inOrder &= element[1] == next[(int) element[0]]++;
+            }
+        }
+        done.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        boolean ordered = inOrder;
+        assertAll(
+                () -> assertTrue(ordered),
+                () -> assertEquals(0, buffer.drain(element -> {})),
+                () -> assertArrayEquals(new int[]{perProducer, perProducer, perProducer, perProducer}, next)
+        );
+    }
+}
@@ -0,0 +1,131 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.events.IOEvent;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.simulation.EventGenerator;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.event.rule.DefaultRuleRuntimeEventListener;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.runtime.KieSession;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventGeneratorTests {
+
+    private static List<Process> processes(int count) {
+        List<Process> processes = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            // every other process is blocked on an I/O instruction
+            if (i % 2 == 0) {
+                processes.add(new Process(i, 5, 1024, ProcessStatus.BLOCKED, 1,
+                        List.of(InstructionType.REGULAR, InstructionType.IO, InstructionType.REGULAR)));
+            } else {
+                processes.add(new Process(i, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(3, InstructionType.REGULAR)));
+            }
+        }
+        return processes;
+    }
+
+    // counts the inserted events of each type and the threads that inserted them, in every entry point
+    private static class InsertedEvents extends DefaultRuleRuntimeEventListener {
+
+        private final Map<Class<?>, Integer> counts = new ConcurrentHashMap<>();
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void objectInserted(ObjectInsertedEvent event) {
+            counts.merge(event.getObject().getClass(), 1, Integer::sum);
+            threads.add(Thread.currentThread());
+        }
+
+        int count(Class<?> type) {
+            return counts.getOrDefault(type, 0);
+        }
+    }
+
+    @Test
+    public void testStoppedGeneratorDoesNotInsertEvents() {
+        KieSession kieSession = DroolsUtil.getSession();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        EventGenerator generator = new EventGenerator(kieSession, processes(10), new Random(42), temperature -> {});
+        generator.start(scheduler);
+        generator.stop();
+        long factsAfterStop = kieSession.getFactCount();
+
+        generator.emitTemperature();
+        generator.emitPageFaults();
+        generator.emitIoEvents();
+        // runs the drain the generator submitted while it was started
+        kieSession.fireAllRules();
+
+        assertEquals(factsAfterStop, kieSession.getFactCount());
+        for (String entryPoint : List.of(CpuTemperatureEvent.ENTRY_POINT, IOEvent.ENTRY_POINT, PageFaultEvent.ENTRY_POINT)) {
+            assertEquals(0, kieSession.getEntryPoint(entryPoint).getFactCount());
+        }
+
+        scheduler.shutdownNow();
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testThreadCountDoesNotDependOnProcessCount() throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        KieSession kieSession = DroolsUtil.getSession();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        List<Process> processes = processes(1000);
+        // without unfinished processes the engine would halt right away
+        processes.forEach(kieSession::insert);
+        InsertedEvents inserted = new InsertedEvents();
+        kieSession.addEventListener(inserted);
+        Thread engine = new Thread(kieSession::fireUntilHalt);
+        engine.start();
+
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        EventGenerator generator = new EventGenerator(kieSession, processes, new Random(42), temperature -> {});
+        generator.start(scheduler);
+        TimeUnit.MILLISECONDS.sleep(EventGenerator.PAGE_FAULT_PERIOD_MILLIS + 200);
+        generator.stop();
+        kieSession.halt();
+        engine.join();
+
+        int addedThreads = threads.getPeakThreadCount() - threadsBefore;
+
+        assertAll(
+                // the per-process generators used to start about 1500 threads for this workload. Besides the scheduler
+                // thread, the running engine may start the Drools worker that compiles hot constraints in the background
+                () -> assertTrue(addedThreads <= 2),
+                // the first I/O tick covers the 500 blocked processes
+                () -> assertEquals(500, inserted.count(IOEvent.class)),
+                () -> assertTrue(inserted.count(CpuTemperatureEvent.class) >= 2),
+                // two page fault ticks with a 20% chance for each of the 1000 processes
+                () -> assertTrue(inserted.count(PageFaultEvent.class) > 250),
+                // the generator threads only fill the buffer, the engine thread inserts
+                () -> assertEquals(Set.of(engine), inserted.threads),
+                () -> assertEquals(0, generator.getDroppedEvents())
+        );
+
+        scheduler.shutdownNow();
+        kieSession.dispose();
+    }
+}
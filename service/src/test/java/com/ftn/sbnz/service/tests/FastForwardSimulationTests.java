@@ -0,0 +1,143 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.SampleAppService;
+import com.ftn.sbnz.service.dtos.EventDto;
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.EventType;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.dtos.TracePageDto;
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.service.trace.InvalidTracePageException;
+import com.ftn.sbnz.service.trace.TraceLog;
+import com.ftn.sbnz.service.trace.TraceRecord;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastForwardSimulationTests {
+
+    private static SystemStateDto systemState(long seed) {
+        return SimulationFixture.fastForward(2, 4, seed);
+    }
+
+    @Test
+    public void testSameSeedGivesSameEvents() {
+        SimulationFixture fixture = new SimulationFixture();
+        SampleAppService service = fixture.service;
+
+        long startedAt = System.currentTimeMillis();
+        EventListDto first = service.runSystem(systemState(42));
+        // a different simulation in between must not leave anything behind in the pooled session
+        EventListDto other = service.runSystem(systemState(7));
+        EventListDto second = service.runSystem(systemState(42));
+        long wallTime = System.currentTimeMillis() - startedAt;
+        long virtualTime = first.getVirtualTime() + other.getVirtualTime() + second.getVirtualTime();
+
+        assertAll(
+                () -> assertEquals(42, first.getSeed()),
+                () -> assertEquals(first.getEvents(), second.getEvents()),
+                () -> assertEquals(first.getRulesFired(), second.getRulesFired()),
+                () -> assertEquals(first.getVirtualTime(), second.getVirtualTime()),
+                // every I/O instruction waits for at least one 1.5 s I/O tick
+                () -> assertTrue(first.getVirtualTime() >= 1500),
+                // fast-forwarding skips the waits, the three runs take less wall time than they simulate
+                () -> assertTrue(wallTime < virtualTime, () -> "Three fast-forward runs covered " + virtualTime
+                        + " ms of virtual time in " + wallTime + " ms")
+        );
+
+        fixture.close();
+    }
+
+    @Test
+    public void testEveryRequestedCoreRunsProcesses() {
+        SimulationFixture fixture = new SimulationFixture();
+        SampleAppService service = fixture.service;
+
+        EventListDto result = service.runSystem(SimulationFixture.fastForward(8, 16, 42));
+        Set<Integer> schedulingCores = result.getEvents().stream()
+                .filter(event -> event.getEventType() == EventType.PROCESS_SCHEDULED)
+                .map(EventDto::getCoreId)
+                .collect(Collectors.toSet());
+
+        assertAll(
+                // copies of a single core used to collapse into one fact
+                () -> assertEquals(Set.of(1, 2, 3, 4, 5, 6, 7, 8), schedulingCores),
+                () -> assertEquals(16, result.getEvents().stream()
+                        .filter(event -> event.getEventType() == EventType.PROCESS_FINISHED)
+                        .count())
+        );
+
+        fixture.close();
+    }
+
+    @Test
+    public void testRuleEngineMetricsCoverTheRun() {
+        SimulationFixture fixture = new SimulationFixture();
+        SimpleMeterRegistry registry = fixture.registry;
+
+        EventListDto result = fixture.service.runSystem(systemState(42));
+        long firings = registry.find("drools.rule.firing").timers().stream().mapToLong(Timer::count).sum();
+        double pageFaults = registry.get("drools.events.inserted").tag("type", "PageFaultEvent").counter().count();
+        double expiredPageFaults = registry.get("drools.events.expired").tag("type", "PageFaultEvent").counter().count();
+
+        assertAll(
+                () -> assertEquals(result.getRulesFired(), firings),
+                () -> assertEquals(4, registry.get("drools.rule.firing").tag("rule", "Finish executing the process").timer().count()),
+                () -> assertTrue(pageFaults > 0),
+                () -> assertTrue(expiredPageFaults <= pageFaults),
+                // the session is reset after the run, so nothing it held is left in the gauges
+                () -> assertTrue(registry.find("drools.working.memory.facts").gauges().stream().allMatch(gauge -> gauge.value() == 0)),
+                () -> assertEquals(0, registry.get("drools.agenda.size").gauge().value()),
+                () -> assertEquals(0, registry.get("drools.sessions.active").gauge().value()),
+                () -> assertEquals(1, registry.get("drools.session.lifetime").timer().count())
+        );
+
+        fixture.close();
+    }
+
+    @Test
+    public void testTraceHoldsEveryFiring() {
+        // room for 64 records per segment, so the run spans several segments
+        SimulationFixture fixture = new SimulationFixture(16 + 64 * 24);
+
+        EventListDto result = fixture.service.runSystem(systemState(42));
+        List<TraceRecord> trace = fixture.traceLog.read(result.getTraceId(), 0, TraceLog.MAX_PAGE).getRecords();
+        // pages that do not line up with the segments
+        List<TraceRecord> paged = new ArrayList<>();
+        TracePageDto page;
+        do {
+            page = fixture.traceLog.read(result.getTraceId(), paged.size(), 50);
+            paged.addAll(page.getRecords());
+        } while (!page.getRecords().isEmpty());
+        long total = page.getTotal();
+        List<TraceRecord> finished = trace.stream()
+                .filter(record -> record.getRule().equals("Finish executing the process"))
+                .collect(Collectors.toList());
+
+        assertAll(
+                () -> assertTrue(result.getRulesFired() > 64),
+                () -> assertEquals(result.getRulesFired(), trace.size()),
+                () -> assertEquals(trace, paged),
+                () -> assertEquals(trace.size(), total),
+                () -> assertThrows(InvalidTracePageException.class, () -> fixture.traceLog.read(result.getTraceId(), -1, 50)),
+                () -> assertEquals(Set.of(1, 2, 3, 4), finished.stream().map(TraceRecord::getProcessId).collect(Collectors.toSet())),
+                () -> assertTrue(finished.stream().allMatch(record -> record.getProcessBefore() == ProcessStatus.RUNNING
+                        && record.getProcessAfter() == ProcessStatus.EXIT)),
+                () -> assertTrue(finished.stream().allMatch(record -> record.getCoreId() > 0
+                        && record.getCoreBefore() != CpuCoreStatus.IDLE && record.getCoreAfter() == CpuCoreStatus.IDLE)),
+                // virtual time only moves forward
+                () -> assertTrue(trace.stream().mapToLong(TraceRecord::getVirtualTime).reduce(0, (previous, time) ->
+                        time >= previous ? time : Long.MAX_VALUE) <= result.getVirtualTime())
+        );
+
+        fixture.close();
+    }
+}
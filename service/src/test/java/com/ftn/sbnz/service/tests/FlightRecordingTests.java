@@ -0,0 +1,119 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.RecordingDto;
+import com.ftn.sbnz.service.recording.FlightRecordings;
+import com.ftn.sbnz.service.recording.RecordingNotFoundException;
+import com.ftn.sbnz.service.recording.TooManyRecordingsException;
+import com.ftn.sbnz.service.recording.UnknownRecordingSettingsException;
+import com.ftn.sbnz.tracing.TracingListener;
+import com.ftn.sbnz.utils.DroolsUtil;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingTests {
+
+    private static List<RecordedEvent> read(Path dump) throws IOException {
+        try {
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            FlightRecordings.delete(dump);
+        }
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+
+    @Test
+    public void testRecordingCapturesSessionEvents() throws IOException {
+        FlightRecordings recordings = new FlightRecordings(60, 2, 64 << 20);
+        RecordingDto recording = recordings.start("default", null);
+
+        KieSession kieSession = DroolsUtil.getSession();
+        kieSession.insert(new MemoryState(8192));
+        kieSession.insert(new CpuState());
+        kieSession.insert(new CpuCore(1));
+        kieSession.insert(new Process(7, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(3, InstructionType.REGULAR)));
+        kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT).insert(new PageFaultEvent(7));
+        int firedRules = kieSession.fireAllRules();
+        long sessionId = kieSession.getIdentifier();
+        kieSession.dispose();
+
+        List<RecordedEvent> events = read(recordings.dump(recording.getId()));
+        recordings.stop(recording.getId());
+
+        List<RecordedEvent> firings = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.ftn.sbnz.RuleFiring"))
+                .filter(event -> event.getLong("sessionId") == sessionId)
+                .collect(Collectors.toList());
+
+        assertAll(
+                () -> assertEquals(60, recording.getMaxAgeSeconds()),
+                () -> assertEquals(firedRules, firings.size()),
+                () -> assertTrue(firings.stream().anyMatch(event ->
+                        event.getString("rule").equals("Finish executing the process") && event.getInt("processId") == 7)),
+                () -> assertTrue(events.stream().anyMatch(event ->
+                        event.getEventType().getName().equals("com.ftn.sbnz.FactInsert")
+                                && PageFaultEvent.ENTRY_POINT.equals(event.getString("entryPoint")))),
+                () -> assertTrue(count(events, "com.ftn.sbnz.SessionLifecycle") >= 1),
+                () -> assertTrue(recordings.list().isEmpty())
+        );
+    }
+
+    @Test
+    public void testUnknownRecordingsAndSettingsAreRejected() {
+        FlightRecordings recordings = new FlightRecordings(60, 2, 64 << 20);
+
+        assertAll(
+                () -> assertThrows(UnknownRecordingSettingsException.class, () -> recordings.start("no-such-settings", null)),
+                () -> assertThrows(RecordingNotFoundException.class, () -> recordings.dump(-1)),
+                () -> assertThrows(RecordingNotFoundException.class, () -> recordings.stop(-1))
+        );
+    }
+
+    @Test
+    public void testOnlyTheConfiguredNumberOfRecordingsRun() {
+        FlightRecordings recordings = new FlightRecordings(60, 1, 64 << 20);
+
+        RecordingDto recording = recordings.start("default", null);
+
+        assertThrows(TooManyRecordingsException.class, () -> recordings.start("profile", null));
+        recordings.stop(recording.getId());
+        recordings.stop(recordings.start("profile", null).getId());
+    }
+
+    @Test
+    public void testSessionsAreOnlyTracedWhileRecording() {
+        FlightRecordings recordings = new FlightRecordings(60, 2, 64 << 20);
+
+        KieSession untraced = DroolsUtil.getSession();
+        RecordingDto recording = recordings.start("default", null);
+        KieSession traced = DroolsUtil.getSession();
+        recordings.stop(recording.getId());
+
+        assertAll(
+                () -> assertTrue(untraced.getAgendaEventListeners().stream().noneMatch(listener -> listener instanceof TracingListener)),
+                () -> assertTrue(traced.getAgendaEventListeners().stream().anyMatch(listener -> listener instanceof TracingListener))
+        );
+
+        untraced.dispose();
+        traced.dispose();
+    }
+}
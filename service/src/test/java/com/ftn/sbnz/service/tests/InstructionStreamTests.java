@@ -0,0 +1,49 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.models.InstructionStream;
+import com.ftn.sbnz.service.dtos.ProcessDto;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstructionStreamTests {
+
+    @Test
+    public void testQueriesAroundIOInstructions() {
+        InstructionStream stream = InstructionStream.of(List.of(InstructionType.REGULAR, InstructionType.IO,
+                InstructionType.REGULAR, InstructionType.REGULAR, InstructionType.IO, InstructionType.REGULAR));
+
+        assertAll(
+                () -> assertEquals(6, stream.size()),
+                () -> assertEquals(2, stream.getIoCount()),
+                () -> assertTrue(stream.isIo(1)),
+                () -> assertFalse(stream.isIo(2)),
+                () -> assertEquals(InstructionType.IO, stream.get(4)),
+                () -> assertEquals(1, stream.nextIo(0)),
+                () -> assertEquals(4, stream.nextIo(2)),
+                () -> assertEquals(2, stream.distanceToNextIo(2)),
+                // past the last I/O instruction the end of the stream is next
+                () -> assertEquals(6, stream.nextIo(5))
+        );
+    }
+
+    @Test
+    public void testProcessDtoNumbersIOInstructionsFromOne() {
+        ProcessDto dto = new ProcessDto();
+        dto.setInstructions(2_000_000_000);
+        dto.setIoInstructions(List.of(1_500_000_000, 5, 5, 3_000_000));
+
+        InstructionStream stream = dto.getInstructionStream();
+
+        assertAll(
+                () -> assertEquals(2_000_000_000, stream.size()),
+                () -> assertEquals(3, stream.getIoCount()),
+                () -> assertTrue(stream.isIo(4)),
+                () -> assertTrue(stream.isIo(1_499_999_999)),
+                () -> assertEquals(2_999_999, stream.nextIo(5))
+        );
+    }
+}
@@ -0,0 +1,138 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.listener.TriggeredRulesListener;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.CpuTemperatureEvent;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.model.models.ProcessQueue;
+import com.ftn.sbnz.service.dtos.RecordingDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import com.ftn.sbnz.service.pool.SessionPoolExhaustedException;
+import com.ftn.sbnz.service.recording.FlightRecordings;
+import com.ftn.sbnz.service.simulation.EventGenerator;
+import com.ftn.sbnz.service.simulation.SimulationFacts;
+import com.ftn.sbnz.tracing.TracingListener;
+import org.junit.Test;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionPseudoClock;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KieSessionPoolTests {
+
+    @Test
+    public void testReleasedSessionIsReset() {
+        KieSessionPool pool = new KieSessionPool(1, 100);
+
+        KieSession kieSession = pool.borrow();
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        kieSession.addEventListener((AgendaEventListener) new TriggeredRulesListener());
+        kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).insert(new CpuTemperatureEvent(105));
+        clock.advanceTime(5, TimeUnit.SECONDS);
+        pool.release(kieSession);
+
+        KieSession reused = pool.borrow();
+
+        assertAll(
+                () -> assertSame(kieSession, reused),
+                // only the fresh, empty process queues are left
+                () -> assertEquals(0, reused.getObjects(fact -> !(fact instanceof ProcessQueue)).size()),
+                () -> assertEquals(0, reused.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).getFactCount()),
+                () -> assertEquals(0, reused.<SessionPseudoClock>getSessionClock().getCurrentTime()),
+                // no flight recording is running, so no tracing is installed either
+                () -> assertTrue(reused.getAgendaEventListeners().isEmpty())
+        );
+
+        pool.close();
+    }
+
+    @Test
+    public void testIdleSessionsFollowFlightRecordings() {
+        FlightRecordings recordings = new FlightRecordings(60, 2, 64 << 20);
+
+        // warmed up before the recording starts, and while it runs
+        KieSessionPool warmedUntraced = new KieSessionPool(1, 100);
+        RecordingDto recording = recordings.start("default", null);
+        KieSessionPool warmedTraced = new KieSessionPool(1, 100);
+
+        KieSession traced = warmedUntraced.borrow();
+        recordings.stop(recording.getId());
+        KieSession untraced = warmedTraced.borrow();
+
+        assertAll(
+                () -> assertTrue(traced.getAgendaEventListeners().stream().anyMatch(listener -> listener instanceof TracingListener)),
+                () -> assertTrue(traced.getRuleRuntimeEventListeners().stream().anyMatch(listener -> listener instanceof TracingListener)),
+                () -> assertTrue(untraced.getAgendaEventListeners().stream().noneMatch(listener -> listener instanceof TracingListener)),
+                () -> assertTrue(untraced.getRuleRuntimeEventListeners().stream().noneMatch(listener -> listener instanceof TracingListener))
+        );
+
+        warmedUntraced.release(traced);
+        warmedTraced.release(untraced);
+        warmedUntraced.close();
+        warmedTraced.close();
+    }
+
+    @Test
+    public void testReusedSessionRunsAnotherSimulation() {
+        KieSessionPool pool = new KieSessionPool(1, 100);
+        SystemStateDto systemState = SimulationFixture.systemState(2, 4, 30, List.of(5, 10, 15, 20, 25));
+
+        // the first simulation is released with its streamed events still inside their windows
+        KieSession kieSession = pool.borrow();
+        List<Process> first = SimulationFacts.insert(kieSession, systemState);
+        simulate(kieSession, first, 3000);
+        assertTrue(kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).getFactCount() > 0);
+        pool.release(kieSession);
+
+        KieSession reused = pool.borrow();
+        SessionPseudoClock clock = reused.getSessionClock();
+        List<Process> second = SimulationFacts.insert(reused, systemState);
+        simulate(reused, second, TimeUnit.MINUTES.toMillis(10));
+
+        assertAll(
+                () -> assertSame(kieSession, reused),
+                () -> assertEquals(TimeUnit.MINUTES.toMillis(10), clock.getCurrentTime()),
+                () -> assertTrue(second.stream().allMatch(process -> process.getStatus() == ProcessStatus.EXIT))
+        );
+
+        pool.release(reused);
+        pool.close();
+    }
+
+    // streams the generated events tick by tick and moves the pseudo clock past their windows
+    private static void simulate(KieSession kieSession, List<Process> processes, long durationMillis) {
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        EventGenerator generator = new EventGenerator(kieSession, processes, new Random(42), temperature -> {});
+        for (long time = 0; time < durationMillis; time += EventGenerator.TICK_MILLIS) {
+            generator.emitDue(time);
+            kieSession.fireAllRules();
+            clock.advanceTime(EventGenerator.TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testBorrowFailsWhenPoolIsExhausted() {
+        KieSessionPool pool = new KieSessionPool(1, 50);
+
+        KieSession kieSession = pool.borrow();
+
+        assertThrows(SessionPoolExhaustedException.class, pool::borrow);
+        assertAll(
+                () -> assertEquals(1, pool.getMetrics().getInUse()),
+                () -> assertEquals(0, pool.getMetrics().getIdle()),
+                () -> assertEquals(1, pool.getMetrics().getBorrowed()),
+                () -> assertEquals(1, pool.getMetrics().getRejected())
+        );
+
+        pool.release(kieSession);
+        assertEquals(0, pool.getMetrics().getInUse());
+
+        pool.close();
+    }
+}
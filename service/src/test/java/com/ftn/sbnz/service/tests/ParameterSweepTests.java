@@ -0,0 +1,111 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.ScenarioResultDto;
+import com.ftn.sbnz.service.dtos.SimulationMode;
+import com.ftn.sbnz.service.dtos.SweepGridDto;
+import com.ftn.sbnz.service.dtos.SweepRequestDto;
+import com.ftn.sbnz.service.dtos.SweepResultDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.sweep.InvalidSweepException;
+import com.ftn.sbnz.service.sweep.ParameterSweepService;
+import com.ftn.sbnz.service.sweep.SweepTooLargeException;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTests {
+
+    private static SystemStateDto base() {
+        return SimulationFixture.systemState(1, 6, 20, List.of(5, 15));
+    }
+
+    @Test
+    public void testSweepRunsEveryCombination() {
+        SimulationFixture fixture = new SimulationFixture();
+        ParameterSweepService sweepService = new ParameterSweepService(fixture.service, 4, 64, 64);
+
+        SweepRequestDto request = new SweepRequestDto();
+        request.setBase(base());
+        SweepGridDto grid = new SweepGridDto();
+        grid.setCpuCores(List.of(1, 2, 4));
+        grid.setQuantum(List.of(1, 5));
+        grid.setSeeds(List.of(1L, 2L));
+        request.setGrid(grid);
+
+        SweepResultDto result = sweepService.run(request);
+        ScenarioResultDto last = result.getScenarios().get(result.getScenarios().size() - 1);
+
+        // the same scenario run on its own through the /schedule path
+        SystemStateDto single = base();
+        single.getSystem().setCpuCores(4);
+        single.getSystem().setQuantum(5);
+        single.setSeed(2L);
+        single.setMode(SimulationMode.FAST_FORWARD);
+        EventListDto expected = fixture.service.runSystem(single);
+
+        assertAll(
+                () -> assertEquals(12, result.getScenarios().size()),
+                () -> assertEquals(4, result.getThreads()),
+                () -> assertTrue(result.getScenarios().stream().allMatch(scenario -> scenario.getFinishedProcesses() == 6)),
+                () -> assertTrue(result.getScenarios().stream().allMatch(scenario -> scenario.getTotalMemory() == single.getSystem().getTotalMemory())),
+                () -> assertEquals(4, last.getCpuCores()),
+                () -> assertEquals(5, last.getQuantum()),
+                () -> assertEquals(2L, last.getSeed()),
+                () -> assertEquals(expected.getRulesFired(), last.getRulesFired()),
+                () -> assertEquals(expected.getVirtualTime(), last.getVirtualTime()),
+                () -> assertEquals(result.getScenarios().stream().mapToLong(ScenarioResultDto::getRulesFired).sum(),
+                        result.getRulesFired())
+        );
+
+        sweepService.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    public void testTooLargeSweepIsRejected() {
+        SimulationFixture fixture = new SimulationFixture();
+        ParameterSweepService sweepService = new ParameterSweepService(fixture.service, 1, 4, 64);
+
+        SweepRequestDto request = new SweepRequestDto();
+        request.setBase(base());
+        request.getGrid().setCpuCores(List.of(1, 2, 3, 4, 5));
+
+        assertThrows(SweepTooLargeException.class, () -> sweepService.run(request));
+
+        sweepService.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    public void testSweepWithoutABaseSystemOrWithEmptyResourcesIsRejected() {
+        SimulationFixture fixture = new SimulationFixture();
+        ParameterSweepService sweepService = new ParameterSweepService(fixture.service, 1, 64, 64);
+
+        SweepRequestDto noBase = new SweepRequestDto();
+        SweepRequestDto noSystem = new SweepRequestDto();
+        noSystem.setBase(new SystemStateDto());
+        SweepRequestDto noCores = new SweepRequestDto();
+        noCores.setBase(base());
+        noCores.getGrid().setCpuCores(List.of(2, 0));
+        SweepRequestDto negativeMemory = new SweepRequestDto();
+        negativeMemory.setBase(base());
+        negativeMemory.getGrid().setTotalMemory(List.of(-1024));
+        SweepRequestDto noQuantum = new SweepRequestDto();
+        noQuantum.setBase(base());
+        noQuantum.getBase().getSystem().setQuantum(0);
+
+        assertAll(
+                () -> assertThrows(InvalidSweepException.class, () -> sweepService.run(noBase)),
+                () -> assertThrows(InvalidSweepException.class, () -> sweepService.run(noSystem)),
+                () -> assertThrows(InvalidSweepException.class, () -> sweepService.run(noCores)),
+                () -> assertThrows(InvalidSweepException.class, () -> sweepService.run(negativeMemory)),
+                () -> assertThrows(InvalidSweepException.class, () -> sweepService.run(noQuantum))
+        );
+
+        sweepService.shutdown();
+        fixture.close();
+    }
+}
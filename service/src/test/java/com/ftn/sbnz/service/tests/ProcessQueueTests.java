@@ -0,0 +1,85 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.model.models.ProcessQueue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProcessQueueTests {
+
+    private static final ProcessStatus[] STATUSES = {ProcessStatus.NEW, ProcessStatus.READY, ProcessStatus.RUNNING, ProcessStatus.BLOCKED};
+
+    @Test
+    public void testReadyQueueHeadIsHighestPriorityThenLongestWaiting() {
+        ProcessQueue queue = new ProcessQueue(ProcessStatus.READY);
+        Process early = new Process(1, 5, 1024, ProcessStatus.READY, 0, 100, List.of(InstructionType.REGULAR));
+        Process late = new Process(2, 5, 1024, ProcessStatus.READY, 0, 200, List.of(InstructionType.REGULAR));
+        Process low = new Process(3, 2, 1024, ProcessStatus.READY, 0, 0, List.of(InstructionType.REGULAR));
+
+        assertTrue(queue.offer(late));
+        assertFalse(queue.offer(low));
+        assertTrue(queue.offer(early));
+        assertEquals(1, queue.getHeadId());
+
+        // boosting the low priority process moves it to the head
+        low.setPriority(9);
+        assertTrue(queue.offer(low));
+        assertEquals(3, queue.getHeadId());
+
+        // a scheduled process leaves the ready queue
+        low.setStatus(ProcessStatus.RUNNING);
+        assertTrue(queue.offer(low));
+        assertAll(
+                () -> assertEquals(1, queue.getHeadId()),
+                () -> assertEquals(2, queue.size())
+        );
+    }
+
+    @Test
+    public void testHeadMatchesFullScanAfterRandomChanges() {
+        Random random = new Random(42);
+        ProcessQueue ready = new ProcessQueue(ProcessStatus.READY);
+        ProcessQueue running = new ProcessQueue(ProcessStatus.RUNNING);
+        List<Process> processes = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            processes.add(new Process(id, 1 + random.nextInt(10), 1024, ProcessStatus.NEW, 0, random.nextInt(50),
+                    List.of(InstructionType.REGULAR)));
+        }
+
+        Comparator<Process> readyOrder = Comparator.comparingInt(Process::getPriority).reversed()
+                .thenComparingLong(Process::getLastStatusChange).thenComparingInt(Process::getId);
+        Comparator<Process> runningOrder = Comparator.comparingInt(Process::getPriority)
+                .thenComparing(Comparator.comparingLong(Process::getLastStatusChange).reversed())
+                .thenComparingInt(Process::getId);
+
+        for (int step = 0; step < 10_000; step++) {
+            Process process = processes.get(random.nextInt(processes.size()));
+            if (random.nextBoolean()) {
+                process.setPriority(1 + random.nextInt(10));
+            } else {
+                process.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            }
+            ready.offer(process);
+            running.offer(process);
+
+            assertEquals(headId(processes, ProcessStatus.READY, readyOrder), ready.getHeadId());
+            assertEquals(headId(processes, ProcessStatus.RUNNING, runningOrder), running.getHeadId());
+        }
+    }
+
+    private static int headId(List<Process> processes, ProcessStatus status, Comparator<Process> order) {
+        return processes.stream()
+                .filter(process -> process.getStatus() == status)
+                .min(order)
+                .map(Process::getId)
+                .orElse(ProcessQueue.EMPTY);
+    }
+}
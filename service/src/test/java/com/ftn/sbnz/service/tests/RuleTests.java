@@ -1,14 +1,18 @@
 package com.ftn.sbnz.service.tests;
 
+import com.ftn.sbnz.listener.TriggeredRulesListener;
 import com.ftn.sbnz.model.enums.CpuCoreStatus;
 import com.ftn.sbnz.model.enums.InstructionType;
 import com.ftn.sbnz.model.enums.ProcessStatus;
 import com.ftn.sbnz.model.events.CpuTemperatureEvent;
 import com.ftn.sbnz.model.events.IOEvent;
 import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.events.SuspendLowestPriorityProcessEvent;
 import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
 import com.ftn.sbnz.model.models.Process;
-import com.ftn.sbnz.model.models.SystemState;
+import com.ftn.sbnz.service.dtos.EventType;
 import com.ftn.sbnz.utils.DroolsUtil;
 import org.junit.Test;
 import org.kie.api.runtime.KieSession;
@@ -26,18 +30,20 @@ public class RuleTests {
     public void testProcessBecomesRunningWhenSufficientResources() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(8192, 8192, true);
+        MemoryState memoryState = new MemoryState(8192, 8192);
+        CpuState cpuState = new CpuState(true);
         Process process = new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(process);
         kieSession.insert(core);
         int firedRules = kieSession.fireAllRules();
 
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, process.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertNotEquals(0, process.getLastStatusChange()),
                 () -> assertEquals(14, firedRules),
                 () -> assertEquals(CpuCoreStatus.IDLE, core.getStatus())
@@ -50,18 +56,20 @@ public class RuleTests {
     public void testProcessDoesNotBecomeRunningWhenInsufficientResources() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(1000, 1000, true);
+        MemoryState memoryState = new MemoryState(1000, 1000);
+        CpuState cpuState = new CpuState(true);
         Process process = new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(process);
         kieSession.insert(core);
         int firedRules = kieSession.fireAllRules();
 
         assertAll(
                 () -> assertEquals(ProcessStatus.NEW, process.getStatus()),
-                () -> assertEquals(1000, systemState.getAvailableMemory()),
+                () -> assertEquals(1000, memoryState.getAvailableMemory()),
                 () -> assertEquals(0, firedRules)
         );
 
@@ -72,12 +80,14 @@ public class RuleTests {
     public void testMultipleProcessesPriorityRecognition() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(8192, 8192, true);
+        MemoryState memoryState = new MemoryState(8192, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processHighPriority = new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(5, InstructionType.REGULAR));
         Process processLowPriority = new Process(2, 1, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processHighPriority);
         kieSession.insert(processLowPriority);
         kieSession.insert(core);
@@ -86,7 +96,7 @@ public class RuleTests {
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processLowPriority.getStatus()),
                 () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertNotEquals(0, processHighPriority.getLastStatusChange()),
                 () -> assertNotEquals(0, processLowPriority.getLastStatusChange()),
                 () -> assertTrue(processHighPriority.getLastStatusChange() < processLowPriority.getLastStatusChange()),
@@ -101,13 +111,15 @@ public class RuleTests {
     public void testMultipleCores() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(8192, 8192, true);
+        MemoryState memoryState = new MemoryState(8192, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processHighPriority = new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(5, InstructionType.REGULAR));
         Process processLowPriority = new Process(2, 1, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(null, CpuCoreStatus.IDLE, 0);
         CpuCore core2 = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processHighPriority);
         kieSession.insert(processLowPriority);
         kieSession.insert(core1);
@@ -117,7 +129,7 @@ public class RuleTests {
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processLowPriority.getStatus()),
                 () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertNotEquals(0, processHighPriority.getLastStatusChange()),
                 () -> assertNotEquals(0, processLowPriority.getLastStatusChange()),
                 // we wont know in which order the processes will execute since they are being executed "in parallel"
@@ -134,16 +146,18 @@ public class RuleTests {
         KieSession kieSession = DroolsUtil.getSession();
         SessionPseudoClock clock = kieSession.getSessionClock();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processHighPriority = new Process(1, 5, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(5, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(1, CpuCoreStatus.BUSY, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processHighPriority);
         kieSession.insert(core1);
         for(int i = 0; i < 5; ++i) {
             CpuTemperatureEvent tempEvent = new CpuTemperatureEvent(105);
-            kieSession.insert(tempEvent);
+            kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).insert(tempEvent);
             clock.advanceTime(1, TimeUnit.SECONDS);
         }
 
@@ -151,8 +165,8 @@ public class RuleTests {
 
         assertAll(
                 () -> assertEquals(ProcessStatus.READY, processHighPriority.getStatus()),
-                () -> assertEquals(7168, systemState.getAvailableMemory()),
-                () -> assertFalse(systemState.isCpuEnabled()),
+                () -> assertEquals(7168, memoryState.getAvailableMemory()),
+                () -> assertFalse(cpuState.isEnabled()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
                 () -> assertEquals(2, firedRules)
@@ -166,16 +180,18 @@ public class RuleTests {
         KieSession kieSession = DroolsUtil.getSession();
         SessionPseudoClock clock = kieSession.getSessionClock();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processHighPriority = new Process(1, 5, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(5, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(1, CpuCoreStatus.BUSY, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processHighPriority);
         kieSession.insert(core1);
         for(int i = 0; i < 5; ++i) {
             CpuTemperatureEvent tempEvent = new CpuTemperatureEvent(105);
-            kieSession.insert(tempEvent);
+            kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).insert(tempEvent);
             clock.advanceTime(10, TimeUnit.SECONDS);
         }
 
@@ -183,8 +199,8 @@ public class RuleTests {
 
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
-                () -> assertTrue(systemState.isCpuEnabled()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
+                () -> assertTrue(cpuState.isEnabled()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
                 () -> assertEquals(7, firedRules)
@@ -198,16 +214,18 @@ public class RuleTests {
         KieSession kieSession = DroolsUtil.getSession();
         SessionPseudoClock clock = kieSession.getSessionClock();
 
-        SystemState systemState = new SystemState(7168, 8192, false);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(false);
         Process processHighPriority = new Process(1, 5, 1024, ProcessStatus.READY, 1, Collections.nCopies(5, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processHighPriority);
         kieSession.insert(core1);
         for(int i = 0; i < 5; ++i) {
             CpuTemperatureEvent tempEvent = new CpuTemperatureEvent(49);
-            kieSession.insert(tempEvent);
+            kieSession.getEntryPoint(CpuTemperatureEvent.ENTRY_POINT).insert(tempEvent);
             clock.advanceTime(1, TimeUnit.SECONDS);
         }
 
@@ -215,8 +233,8 @@ public class RuleTests {
 
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
-                () -> assertTrue(systemState.isCpuEnabled()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
+                () -> assertTrue(cpuState.isEnabled()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
                 () -> assertEquals(8, firedRules)
@@ -228,15 +246,21 @@ public class RuleTests {
     @Test
     public void testPriorityBoostingTemplate() {
         KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
 
-        SystemState systemState = new SystemState(8192, 8192, false);
+        MemoryState memoryState = new MemoryState(8192, 8192);
+        CpuState cpuState = new CpuState(false);
         Process process = new Process(1, 5, 1024, ProcessStatus.READY, 0, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(process);
         kieSession.insert(core);
-        int firedRules = kieSession.fireAllRules();
+        // timers start once the rules are evaluated, priorities 3-5 are boosted after waiting for 6 seconds
+        int firedBeforeTimeout = kieSession.fireAllRules();
+        clock.advanceTime(6001, TimeUnit.MILLISECONDS);
+        int firedRules = firedBeforeTimeout + kieSession.fireAllRules();
 
         assertAll(
                 () -> assertTrue(process.getPriority() > 5),
@@ -250,12 +274,14 @@ public class RuleTests {
     public void testPreemption() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(6144, 8192, true);
+        MemoryState memoryState = new MemoryState(6144, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processLowPriority = new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(1, CpuCoreStatus.BUSY, 0);
         Process processHighPriority = new Process(2, 8, 1024, ProcessStatus.READY, 0, Collections.nCopies(10, InstructionType.REGULAR));
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processLowPriority);
         kieSession.insert(core1);
         kieSession.insert(processHighPriority);
@@ -264,7 +290,7 @@ public class RuleTests {
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processLowPriority.getStatus()),
                 () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
                 () -> assertTrue(processLowPriority.getLastStatusChange() > processHighPriority.getLastStatusChange()),
@@ -278,11 +304,13 @@ public class RuleTests {
     public void testIOBlocking() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processLowPriority = new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, List.of(InstructionType.REGULAR, InstructionType.IO, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(1, CpuCoreStatus.BUSY, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processLowPriority);
         kieSession.insert(core1);
         int firedRules = kieSession.fireAllRules();
@@ -297,25 +325,80 @@ public class RuleTests {
         kieSession.dispose();
     }
 
+    @Test
+    public void testQuantumExecutesSeveralInstructionsPerFiring() {
+        KieSession kieSession = DroolsUtil.getSession();
+
+        MemoryState memoryState = new MemoryState(8192, 8192);
+        CpuState cpuState = new CpuState(true);
+        Process process = new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
+        process.setQuantum(4);
+        CpuCore core = new CpuCore(null, CpuCoreStatus.IDLE, 0);
+
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
+        kieSession.insert(process);
+        kieSession.insert(core);
+        int firedRules = kieSession.fireAllRules();
+
+        assertAll(
+                () -> assertEquals(ProcessStatus.EXIT, process.getStatus()),
+                () -> assertEquals(10, process.getCurrentInstruction()),
+                // the ten instructions take three steps instead of ten
+                () -> assertEquals(7, firedRules)
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testQuantumStopsBeforeIOInstruction() {
+        KieSession kieSession = DroolsUtil.getSession();
+
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
+        Process process = new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, List.of(InstructionType.REGULAR,
+                InstructionType.REGULAR, InstructionType.REGULAR, InstructionType.IO, InstructionType.REGULAR));
+        process.setQuantum(100);
+        CpuCore core = new CpuCore(1, CpuCoreStatus.BUSY, 0);
+
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
+        kieSession.insert(process);
+        kieSession.insert(core);
+        int firedRules = kieSession.fireAllRules();
+
+        assertAll(
+                () -> assertEquals(ProcessStatus.BLOCKED, process.getStatus()),
+                () -> assertEquals(3, process.getCurrentInstruction()),
+                () -> assertEquals(CpuCoreStatus.IDLE, core.getStatus()),
+                () -> assertEquals(2, firedRules)
+        );
+
+        kieSession.dispose();
+    }
+
     @Test
     public void testIOUnblocking() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
         Process processLowPriority = new Process(1, 3, 1024, ProcessStatus.BLOCKED, 1, List.of(InstructionType.REGULAR, InstructionType.IO, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(null, CpuCoreStatus.IDLE, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processLowPriority);
         kieSession.insert(core1);
-        kieSession.insert(new IOEvent(1));
+        kieSession.getEntryPoint(IOEvent.ENTRY_POINT).insert(new IOEvent(1));
         int firedRules = kieSession.fireAllRules();
 
         assertAll(
                 () -> assertEquals(ProcessStatus.EXIT, processLowPriority.getStatus()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertEquals(5, firedRules)
         );
 
@@ -326,14 +409,16 @@ public class RuleTests {
     public void testPagingOnPageFaultEvent() {
         KieSession kieSession = DroolsUtil.getSession();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
         Process process = new Process(1, 5, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core = new CpuCore(1, CpuCoreStatus.BUSY, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(process);
         kieSession.insert(core);
-        kieSession.insert(new PageFaultEvent(1));
+        kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT).insert(new PageFaultEvent(1));
         int firedRules = kieSession.fireAllRules();
 
         System.out.println(firedRules);
@@ -342,7 +427,7 @@ public class RuleTests {
                 () -> assertEquals(ProcessStatus.EXIT, process.getStatus()),
                 () -> assertEquals(CpuCoreStatus.IDLE, core.getStatus()),
                 () -> assertNull(core.getCurrentProcessId()),
-                () -> assertEquals(8192, systemState.getAvailableMemory()),
+                () -> assertEquals(8192, memoryState.getAvailableMemory()),
                 () -> assertTrue(firedRules > 12) // 12 to execute the process normally, but since paging happened it will require more
         );
 
@@ -352,18 +437,19 @@ public class RuleTests {
     @Test
     public void testCoreReturnsToBusyAfterPagingTimeout() {
         KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
 
-        SystemState systemState = new SystemState(7168, 8192, true);
-        // set lastStatusChange to current time for accurate testing
-        CpuCore core = new CpuCore(1, CpuCoreStatus.PAGING, System.currentTimeMillis());
+        MemoryState memoryState = new MemoryState(7168, 8192);
+        CpuState cpuState = new CpuState(true);
+        CpuCore core = new CpuCore(1, CpuCoreStatus.PAGING, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(core);
 
-        try {
-            Thread.sleep(2001);
-        } catch (InterruptedException ignored) {}
-
+        // the paging timer starts once the rules are evaluated
+        kieSession.fireAllRules();
+        clock.advanceTime(2001, TimeUnit.MILLISECONDS);
         kieSession.fireAllRules();
 
         assertEquals(CpuCoreStatus.BUSY, core.getStatus());
@@ -377,16 +463,18 @@ public class RuleTests {
         SessionPseudoClock clock = kieSession.getSessionClock();
 
         // set availableMemory < criticalMemoryLimit
-        SystemState systemState = new SystemState(1000, 8192, 2048, true);
+        MemoryState memoryState = new MemoryState(1000, 8192, 2048);
+        CpuState cpuState = new CpuState(true);
         Process processLowPriority = new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR));
         CpuCore core1 = new CpuCore(1, CpuCoreStatus.BUSY, 0);
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(processLowPriority);
         kieSession.insert(core1);
 
         for(int i = 0; i < 5; ++i) {
-            kieSession.insert(new PageFaultEvent(1));
+            kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT).insert(new PageFaultEvent(1));
             clock.advanceTime(1, TimeUnit.SECONDS);
         }
         int firedRules = kieSession.fireAllRules();
@@ -396,7 +484,49 @@ public class RuleTests {
                 () -> assertEquals(CpuCoreStatus.IDLE, core1.getStatus()),
                 () -> assertNull(core1.getCurrentProcessId()),
                 // 1 for the first paging fault, 1 for thrashing detection, 1 for suspension
-                () -> assertEquals(3, firedRules)
+                () -> assertEquals(3, firedRules),
+                // the consumed request stays until it expires, so the same page faults raise no other
+                () -> assertEquals(1, kieSession.getObjects(o -> o instanceof SuspendLowestPriorityProcessEvent).size())
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testThrashingSuspendsOneProcessPerPageFaultCount() {
+        KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        TriggeredRulesListener listener = new TriggeredRulesListener();
+        kieSession.addEventListener(listener);
+
+        MemoryState memoryState = new MemoryState(1000, 8192, 2048);
+        Process processLowPriority = new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR));
+        Process processHighPriority = new Process(2, 5, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR));
+        // resumes as soon as the suspension frees a core, it would be suspended again if the request was raised anew
+        Process processSuspended = new Process(3, 4, 1024, ProcessStatus.SUSPENDED, 0, Collections.nCopies(10, InstructionType.REGULAR));
+        processSuspended.setSafeMemoryLimit(512);
+
+        kieSession.insert(memoryState);
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(processLowPriority);
+        kieSession.insert(processHighPriority);
+        kieSession.insert(processSuspended);
+        kieSession.insert(new CpuCore(1, 1, CpuCoreStatus.BUSY, 0));
+        kieSession.insert(new CpuCore(2, 2, CpuCoreStatus.BUSY, 0));
+
+        for (int i = 0; i < 5; ++i) {
+            kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT).insert(new PageFaultEvent(2));
+            clock.advanceTime(1, TimeUnit.SECONDS);
+        }
+        kieSession.fireAllRules();
+
+        assertAll(
+                () -> assertEquals(1, count(listener, EventType.THRASHING)),
+                () -> assertEquals(1, count(listener, EventType.PROCESS_SUSPENDED)),
+                // finishing processes free enough memory for the suspended one to resume
+                () -> assertEquals(ProcessStatus.EXIT, processLowPriority.getStatus()),
+                () -> assertEquals(ProcessStatus.EXIT, processSuspended.getStatus()),
+                () -> assertEquals(ProcessStatus.EXIT, processHighPriority.getStatus())
         );
 
         kieSession.dispose();
@@ -407,11 +537,13 @@ public class RuleTests {
         KieSession kieSession = DroolsUtil.getSession();
 
         // availableMemory > process safeMemoryLimit
-        SystemState systemState = new SystemState(4096, 8192, true);
+        MemoryState memoryState = new MemoryState(4096, 8192);
+        CpuState cpuState = new CpuState(true);
         Process process = new Process(1, 5, 1024, ProcessStatus.SUSPENDED, 0, Collections.nCopies(10, InstructionType.REGULAR));
         process.setSafeMemoryLimit(2048); // Set safe memory limit for the process
 
-        kieSession.insert(systemState);
+        kieSession.insert(memoryState);
+        kieSession.insert(cpuState);
         kieSession.insert(process);
         kieSession.fireAllRules();
 
@@ -419,4 +551,8 @@ public class RuleTests {
 
         kieSession.dispose();
     }
+
+    private static long count(TriggeredRulesListener listener, EventType eventType) {
+        return listener.getFiredRules().stream().filter(firedRule -> firedRule.getEventType() == eventType).count();
+    }
 }
@@ -0,0 +1,302 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.listener.FiredRule;
+import com.ftn.sbnz.listener.TriggeredRulesListener;
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.EventType;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulingPolicyTests {
+
+    private static Process process(int id, int priority, int instructions, int timeSlice) {
+        Process process = new Process(id, priority, 1024, ProcessStatus.NEW, 0, Collections.nCopies(instructions, InstructionType.REGULAR));
+        process.setTimeSlice(timeSlice);
+        return process;
+    }
+
+    private static TriggeredRulesListener run(SchedulingPolicy policy, List<Process> processes) {
+        KieSession kieSession = DroolsUtil.getSession(policy);
+        TriggeredRulesListener listener = new TriggeredRulesListener();
+        kieSession.addEventListener(listener);
+
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new CpuCore(null, CpuCoreStatus.IDLE, 0));
+        processes.forEach(kieSession::insert);
+        kieSession.fireAllRules();
+
+        kieSession.dispose();
+        return listener;
+    }
+
+    private static List<Integer> processIds(TriggeredRulesListener listener, EventType eventType) {
+        return listener.getFiredRules().stream()
+                .filter(firedRule -> firedRule.getEventType() == eventType)
+                .map(FiredRule::getProcessId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEveryPolicyFinishesAllProcesses() {
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            List<Process> processes = List.of(process(1, 1, 25, 5), process(2, 5, 25, 5), process(3, 9, 25, 5));
+
+            TriggeredRulesListener listener = run(policy, processes);
+
+            assertAll(policy.name(),
+                    () -> assertTrue(processes.stream().allMatch(process -> process.getStatus() == ProcessStatus.EXIT)),
+                    () -> assertEquals(3, processIds(listener, EventType.PROCESS_FINISHED).size())
+            );
+        }
+    }
+
+    @Test
+    public void testPriorityPreemptsTheLowestPriorityRunningProcess() {
+        for (SchedulingPolicy policy : List.of(SchedulingPolicy.PRIORITY, SchedulingPolicy.ROUND_ROBIN)) {
+            KieSession kieSession = DroolsUtil.getSession(policy);
+            TriggeredRulesListener listener = new TriggeredRulesListener();
+            kieSession.addEventListener(listener);
+
+            Process low = process(1, 2, 20, 100);
+            low.setStatus(ProcessStatus.RUNNING);
+            Process high = process(2, 5, 20, 100);
+            high.setStatus(ProcessStatus.RUNNING);
+            Process arriving = process(3, 4, 20, 100);
+            arriving.setStatus(ProcessStatus.READY);
+            kieSession.insert(new MemoryState(8192, 8192));
+            kieSession.insert(new CpuState(true));
+            kieSession.insert(new CpuCore(1, 1, CpuCoreStatus.BUSY, 0));
+            kieSession.insert(new CpuCore(2, 2, CpuCoreStatus.BUSY, 0));
+            kieSession.insert(low);
+            kieSession.insert(high);
+            kieSession.insert(arriving);
+            kieSession.fireAllRules();
+            kieSession.dispose();
+
+            assertAll(policy.name(),
+                    // only the running process below the arriving one gives up its core
+                    () -> assertEquals(List.of(1), processIds(listener, EventType.PREEMPTED)),
+                    () -> assertEquals(List.of(3, 1), processIds(listener, EventType.PROCESS_SCHEDULED))
+            );
+        }
+    }
+
+    @Test
+    public void testRoundRobinRotatesProcessesOfEqualPriority() {
+        List<Integer> roundRobin = processIds(
+                run(SchedulingPolicy.ROUND_ROBIN, List.of(process(1, 5, 20, 5), process(2, 5, 20, 5))),
+                EventType.PROCESS_SCHEDULED);
+        List<Integer> priority = processIds(
+                run(SchedulingPolicy.PRIORITY, List.of(process(1, 5, 20, 5), process(2, 5, 20, 5))),
+                EventType.PROCESS_SCHEDULED);
+
+        assertAll(
+                // four slices each, handing the core over after every one
+                () -> assertEquals(8, roundRobin.size()),
+                () -> {
+                    for (int i = 1; i < roundRobin.size(); i++) {
+                        assertNotEquals(roundRobin.get(i - 1), roundRobin.get(i));
+                    }
+                },
+                // without time slices the first process keeps the core until it finishes
+                () -> assertEquals(2, priority.size())
+        );
+    }
+
+    @Test
+    public void testFairPolicyFavoursHigherPriorityWithoutStarvingLowerOnes() {
+        Process low = process(1, 1, 40, 5);
+        Process high = process(2, 9, 40, 5);
+
+        TriggeredRulesListener listener = run(SchedulingPolicy.FAIR, List.of(low, high));
+
+        assertAll(
+                () -> assertEquals(List.of(2, 1), processIds(listener, EventType.PROCESS_FINISHED)),
+                // the low priority process got its slice before the high priority one finished
+                () -> assertTrue(processIds(listener, EventType.PROCESS_SCHEDULED).indexOf(1) < processIds(listener, EventType.PROCESS_SCHEDULED).lastIndexOf(2)),
+                () -> assertTrue(low.getVirtualRuntime() > high.getVirtualRuntime())
+        );
+    }
+
+    @Test
+    public void testFeedbackDemotesAProcessThatUsesUpItsSlices() {
+        Process process = process(1, 5, 40, 5);
+
+        run(SchedulingPolicy.FEEDBACK, List.of(process));
+
+        assertAll(
+                () -> assertEquals(ProcessStatus.EXIT, process.getStatus()),
+                () -> assertEquals(Process.FEEDBACK_LEVELS - 1, process.getLevel())
+        );
+    }
+
+    @Test
+    public void testFeedbackDemotesAndRequeuesProcessesThatShareTheCore() {
+        Process first = process(1, 5, 20, 5);
+        Process second = process(2, 5, 20, 5);
+
+        TriggeredRulesListener listener = run(SchedulingPolicy.FEEDBACK, List.of(first, second));
+        List<Integer> scheduled = processIds(listener, EventType.PROCESS_SCHEDULED);
+        List<Integer> preempted = processIds(listener, EventType.PREEMPTED);
+
+        assertAll(
+                // slices of 5 and 10 instructions each end with the other process taking over, the third finishes
+                () -> assertEquals(6, scheduled.size()),
+                () -> assertEquals(4, preempted.size()),
+                () -> {
+                    for (int i = 1; i < scheduled.size(); i++) {
+                        assertNotEquals(scheduled.get(i - 1), scheduled.get(i));
+                    }
+                },
+                () -> assertEquals(Process.FEEDBACK_LEVELS - 1, first.getLevel()),
+                () -> assertEquals(Process.FEEDBACK_LEVELS - 1, second.getLevel())
+        );
+    }
+
+    @Test
+    public void testFeedbackPreemptsForAProcessOnAHigherLevel() {
+        KieSession kieSession = DroolsUtil.getSession(SchedulingPolicy.FEEDBACK);
+        TriggeredRulesListener listener = new TriggeredRulesListener();
+        kieSession.addEventListener(listener);
+
+        Process demoted = process(1, 5, 100, 5);
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new CpuCore(null, CpuCoreStatus.IDLE, 0));
+        kieSession.insert(demoted);
+        // one rule at a time, until the process used up its first slice and runs on with the next level's
+        while (demoted.getLevel() == 0 || demoted.getStatus() != ProcessStatus.RUNNING) {
+            assertEquals(1, kieSession.fireAllRules(1));
+        }
+
+        // ready on the top level straight away, without waiting for admission
+        Process arriving = process(2, 5, 5, 5);
+        arriving.setStatus(ProcessStatus.READY);
+        kieSession.insert(arriving);
+        kieSession.fireAllRules();
+        kieSession.dispose();
+
+        assertAll(
+                () -> assertEquals(List.of(1), processIds(listener, EventType.PREEMPTED)),
+                () -> assertEquals(List.of(1, 2, 1), processIds(listener, EventType.PROCESS_SCHEDULED)),
+                () -> assertEquals(List.of(2, 1), processIds(listener, EventType.PROCESS_FINISHED)),
+                () -> assertEquals(0, arriving.getLevel())
+        );
+    }
+
+    @Test
+    public void testFeedbackRaisesAProcessThatWaitedFiveSeconds() {
+        KieSession kieSession = DroolsUtil.getSession(SchedulingPolicy.FEEDBACK);
+        SessionPseudoClock clock = kieSession.getSessionClock();
+
+        Process demoted = process(1, 5, 10, 5);
+        demoted.setLevel(Process.FEEDBACK_LEVELS - 1);
+        Process top = process(2, 5, 10, 5);
+        // no cores, so both processes wait in the ready queue
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(demoted);
+        kieSession.insert(top);
+        kieSession.fireAllRules();
+
+        clock.advanceTime(4900, TimeUnit.MILLISECONDS);
+        kieSession.fireAllRules();
+        int beforeTimer = demoted.getLevel();
+        clock.advanceTime(100, TimeUnit.MILLISECONDS);
+        kieSession.fireAllRules();
+        kieSession.dispose();
+
+        assertAll(
+                () -> assertEquals(ProcessStatus.READY, demoted.getStatus()),
+                () -> assertEquals(Process.FEEDBACK_LEVELS - 1, beforeTimer),
+                () -> assertEquals(0, demoted.getLevel()),
+                () -> assertEquals(0, top.getLevel())
+        );
+    }
+
+    @Test
+    public void testPriorityAlwaysSchedulesTheHighestPriorityReadyProcessWhilePrioritiesAreBoosted() {
+        KieSession kieSession = DroolsUtil.getSession(SchedulingPolicy.PRIORITY);
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        Random random = new Random(7);
+        List<Process> processes = new ArrayList<>();
+        for (int id = 1; id <= 40; id++) {
+            processes.add(process(id, 1 + random.nextInt(10), 20 + random.nextInt(20), 5));
+        }
+
+        // the queue heads are compared with a full scan of the ready processes whenever a process is scheduled
+        List<String> mismatches = new ArrayList<>();
+        int[] boosts = new int[1];
+        int[] scheduled = new int[1];
+        kieSession.addEventListener(new DefaultAgendaEventListener() {
+            @Override
+            public void beforeMatchFired(BeforeMatchFiredEvent event) {
+                String rule = event.getMatch().getRule().getName();
+                if (rule.startsWith("Boost ready process priority")) {
+                    boosts[0]++;
+                } else if (rule.equals("Schedule process with the highest priority")) {
+                    scheduled[0]++;
+                    Process picked = (Process) event.getMatch().getDeclarationValue("$p");
+                    int highest = processes.stream()
+                            .filter(process -> process.getStatus() == ProcessStatus.READY)
+                            .mapToInt(Process::getPriority)
+                            .max().orElse(-1);
+                    if (picked.getPriority() != highest) {
+                        mismatches.add(picked.getId() + " with priority " + picked.getPriority() + " over " + highest);
+                    }
+                }
+            }
+        });
+
+        kieSession.insert(new MemoryState(65536, 65536));
+        CpuState cpu = new CpuState(false);
+        FactHandle cpuHandle = kieSession.insert(cpu);
+        kieSession.insert(new CpuCore(0, null, CpuCoreStatus.IDLE, 0));
+        kieSession.insert(new CpuCore(1, null, CpuCoreStatus.IDLE, 0));
+        // processes arrive while the CPU is disabled and wait long enough for the boosting timers to raise
+        // some of them past the ones that arrive later, then the CPU runs them all
+        for (int round = 0; round < 4; round++) {
+            cpu.setEnabled(false);
+            kieSession.update(cpuHandle, cpu);
+            for (int second = 0; second < 10; second++) {
+                // one arrival a second, so the batch waits between 1 and 10 seconds
+                kieSession.insert(processes.get(round * 10 + second));
+                kieSession.fireAllRules();
+                clock.advanceTime(1, TimeUnit.SECONDS);
+            }
+            cpu.setEnabled(true);
+            kieSession.update(cpuHandle, cpu);
+            kieSession.fireAllRules();
+        }
+        kieSession.dispose();
+
+        assertAll(
+                () -> assertTrue(processes.stream().allMatch(process -> process.getStatus() == ProcessStatus.EXIT)),
+                () -> assertTrue(boosts[0] > 0),
+                () -> assertTrue(scheduled[0] >= processes.size()),
+                () -> assertEquals(List.of(), mismatches)
+        );
+    }
+}
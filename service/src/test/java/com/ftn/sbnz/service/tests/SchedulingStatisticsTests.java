@@ -0,0 +1,168 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.events.PageFaultEvent;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.CoreStatisticsDto;
+import com.ftn.sbnz.service.dtos.DistributionDto;
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.EventType;
+import com.ftn.sbnz.service.dtos.ProcessStatisticsDto;
+import com.ftn.sbnz.service.dtos.SchedulingStatisticsDto;
+import com.ftn.sbnz.service.dtos.SimulationMode;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.statistics.SchedulingStatistics;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulingStatisticsTests {
+
+    private static Process process(KieSession kieSession, int id, int priority) {
+        Process process = new Process(id, priority, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR));
+        process.attachClock(kieSession.getSessionClock());
+        return process;
+    }
+
+    // fires one rule at a time, so the process is left on its core with instructions to go
+    private static void fireUntilRunning(KieSession kieSession, Process process) {
+        while (process.getStatus() != ProcessStatus.RUNNING) {
+            assertEquals(1, kieSession.fireAllRules(1));
+        }
+    }
+
+    @Test
+    public void testTimesAreTakenFromTheSessionClock() {
+        KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        SchedulingStatistics statistics = SchedulingStatistics.attach(kieSession);
+
+        CpuCore core = new CpuCore(1);
+        core.attachClock(clock);
+        Process process = process(kieSession, 1, 5);
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(core);
+        kieSession.insert(process);
+
+        fireUntilRunning(kieSession, process);
+        clock.advanceTime(100, TimeUnit.MILLISECONDS);
+        kieSession.fireAllRules();
+        clock.advanceTime(50, TimeUnit.MILLISECONDS);
+
+        SchedulingStatisticsDto summary = statistics.summarize(clock.getCurrentTime());
+        ProcessStatisticsDto processStatistics = summary.getProcesses().get(0);
+        CoreStatisticsDto coreStatistics = summary.getCores().get(0);
+
+        assertAll(
+                () -> assertEquals(ProcessStatus.EXIT, process.getStatus()),
+                () -> assertEquals(Map.of(ProcessStatus.RUNNING, 100L), processStatistics.getTimeInStatus()),
+                () -> assertEquals(100L, processStatistics.getTurnaround()),
+                () -> assertEquals(0L, processStatistics.getResponse()),
+                () -> assertEquals(1, processStatistics.getContextSwitches()),
+                () -> assertEquals(0, processStatistics.getPreemptions()),
+                () -> assertEquals(100, coreStatistics.getBusyTime()),
+                () -> assertEquals(1, coreStatistics.getDispatches()),
+                () -> assertEquals(100 / 150.0, coreStatistics.getUtilization(), 1e-9),
+                () -> assertEquals(100 / 150.0, summary.getUtilization(), 1e-9)
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testPreemptionsAndPageFaultsAreCountedPerProcess() {
+        KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
+        SchedulingStatistics statistics = SchedulingStatistics.attach(kieSession);
+
+        CpuCore core = new CpuCore(1);
+        core.attachClock(clock);
+        Process low = process(kieSession, 1, 1);
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(core);
+        kieSession.insert(low);
+
+        fireUntilRunning(kieSession, low);
+        EntryPoint pageFaults = kieSession.getEntryPoint(PageFaultEvent.ENTRY_POINT);
+        // the page fault makes the core page, it is taken out so it does not page again once the process is back
+        FactHandle pageFault = pageFaults.insert(new PageFaultEvent(1));
+        assertEquals(1, kieSession.fireAllRules(1));
+        pageFaults.delete(pageFault);
+        clock.advanceTime(100, TimeUnit.MILLISECONDS);
+        kieSession.insert(process(kieSession, 2, 9));
+        kieSession.fireAllRules();
+
+        SchedulingStatisticsDto summary = statistics.summarize(clock.getCurrentTime());
+        Map<String, ProcessStatisticsDto> processes = summary.getProcesses().stream()
+                .collect(Collectors.toMap(ProcessStatisticsDto::getProcessId, Function.identity()));
+
+        assertAll(
+                () -> assertEquals(1, processes.get("1").getPreemptions()),
+                () -> assertEquals(2, processes.get("1").getContextSwitches()),
+                () -> assertEquals(1, processes.get("1").getPageFaults()),
+                () -> assertEquals(100L, processes.get("1").getTurnaround()),
+                () -> assertEquals(0, processes.get("2").getPreemptions()),
+                // the high priority process arrived at 100 ms and ran at once
+                () -> assertEquals(0L, processes.get("2").getTurnaround()),
+                () -> assertEquals(0L, processes.get("2").getResponse()),
+                () -> assertEquals(1, summary.getPreemptions()),
+                () -> assertEquals(3, summary.getContextSwitches()),
+                () -> assertEquals(1, summary.getPageFaults()),
+                () -> assertEquals(2, summary.getTurnaround().getCount())
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testSimulationResultCarriesStatisticsOfEveryProcess() {
+        SimulationFixture fixture = new SimulationFixture();
+        SystemStateDto systemState = SimulationFixture.systemState(2, 8, 20, List.of(5, 15));
+        systemState.setMode(SimulationMode.FAST_FORWARD);
+        systemState.setSeed(7L);
+
+        EventListDto result = fixture.service.runSystem(systemState);
+        SchedulingStatisticsDto summary = result.getStatistics();
+        DistributionDto turnaround = summary.getTurnaround();
+        long scheduled = result.getEvents().stream().filter(event -> event.getEventType() == EventType.PROCESS_SCHEDULED).count();
+        long paging = result.getEvents().stream().filter(event -> event.getEventType() == EventType.PAGING).count();
+
+        assertAll(
+                () -> assertEquals(8, summary.getProcesses().size()),
+                () -> assertEquals(2, summary.getCores().size()),
+                () -> assertEquals(8, turnaround.getCount()),
+                // a finished process stops accumulating, so its times add up to its turnaround
+                () -> assertTrue(summary.getProcesses().stream().allMatch(process ->
+                        process.getTimeInStatus().values().stream().mapToLong(Long::longValue).sum() == process.getTurnaround())),
+                () -> assertEquals(scheduled, summary.getContextSwitches()),
+                () -> assertEquals(summary.getProcesses().stream().mapToLong(ProcessStatisticsDto::getPageFaults).sum(), summary.getPageFaults()),
+                // every page fault that made a core page, not every one the generator produced
+                () -> assertEquals(paging, summary.getPageFaults()),
+                () -> assertTrue(turnaround.getP50() <= turnaround.getP90()),
+                () -> assertTrue(turnaround.getP90() <= turnaround.getP99()),
+                () -> assertTrue(turnaround.getP99() <= turnaround.getMax()),
+                () -> assertTrue(turnaround.getMax() <= result.getVirtualTime()),
+                () -> assertTrue(summary.getUtilization() > 0 && summary.getUtilization() <= 1)
+        );
+
+        fixture.close();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.SampleAppService;
+import com.ftn.sbnz.service.WebSocketSender;
+import com.ftn.sbnz.service.WsHandler;
+import com.ftn.sbnz.service.dtos.ProcessDto;
+import com.ftn.sbnz.service.dtos.SimulationMode;
+import com.ftn.sbnz.service.dtos.SystemDto;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.metrics.RuleEngineMetrics;
+import com.ftn.sbnz.service.pool.KieSessionPool;
+import com.ftn.sbnz.service.trace.TraceLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A SampleAppService wired up like the application does it, on a one-session pool, its own event scheduler
+ * and a fresh trace directory, and the system states the simulation tests run.
+ */
+final class SimulationFixture implements AutoCloseable {
+
+    final KieSessionPool pool = new KieSessionPool(1, 100);
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final TraceLog traceLog;
+    final SampleAppService service;
+
+    SimulationFixture() {
+        this(1 << 20);
+    }
+
+    SimulationFixture(int segmentBytes) {
+        this(traceLog(segmentBytes));
+    }
+
+    SimulationFixture(TraceLog traceLog) {
+        this.traceLog = traceLog;
+        this.service = new SampleAppService(new WsHandler(new WebSocketSender(1, 16)), pool, scheduler,
+                new RuleEngineMetrics(registry), traceLog, 3600000);
+    }
+
+    static TraceLog traceLog(int segmentBytes) {
+        try {
+            return new TraceLog(Files.createTempDirectory("traces").toString(), segmentBytes, 10);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Processes of 30 instructions with an I/O instruction every five, fast-forwarded from the given seed.
+     */
+    static SystemStateDto fastForward(int cores, int processCount, long seed) {
+        SystemStateDto systemState = systemState(cores, processCount, 30, List.of(5, 10, 15, 20, 25));
+        systemState.setMode(SimulationMode.FAST_FORWARD);
+        systemState.setSeed(seed);
+        return systemState;
+    }
+
+    /**
+     * Processes with priorities counting up from one and memory for twice their requirements,
+     * in real-time mode and without a seed.
+     */
+    static SystemStateDto systemState(int cores, int processCount, int instructions, List<Integer> ioInstructions) {
+        SystemDto system = new SystemDto();
+        system.setCpuCores(cores);
+        system.setTotalMemory(1024 * processCount * 2);
+
+        List<ProcessDto> processes = new ArrayList<>();
+        for (int i = 1; i <= processCount; i++) {
+            ProcessDto process = new ProcessDto();
+            process.setId(String.valueOf(i));
+            process.setInstructions(instructions);
+            process.setIoInstructions(ioInstructions);
+            process.setMemoryRequirement(1024);
+            process.setPriority(1 + (i - 1) % 10);
+            process.setSafeMemoryLimit(512);
+            processes.add(process);
+        }
+
+        SystemStateDto systemState = new SystemStateDto();
+        systemState.setSystem(system);
+        systemState.setProcesses(processes);
+        return systemState;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pool.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.dtos.EventListDto;
+import com.ftn.sbnz.service.dtos.ReplayDto;
+import com.ftn.sbnz.service.dtos.SimulationMode;
+import com.ftn.sbnz.service.dtos.SystemStateDto;
+import com.ftn.sbnz.service.jobs.SimulationControl;
+import com.ftn.sbnz.service.trace.TraceLog;
+import com.ftn.sbnz.service.trace.TraceNotReplayableException;
+import com.ftn.sbnz.service.trace.TraceReplayer;
+import com.ftn.sbnz.service.trace.TraceWriter;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceReplayTests {
+
+    private static SystemStateDto systemState(SimulationMode mode) {
+        SystemStateDto systemState = SimulationFixture.fastForward(2, 4, 42);
+        systemState.setMode(mode);
+        return systemState;
+    }
+
+    @Test
+    public void testFastForwardRunReplaysItsFirings() {
+        SimulationFixture fixture = new SimulationFixture();
+        TraceLog traceLog = fixture.traceLog;
+
+        EventListDto result = fixture.service.runSystem(systemState(SimulationMode.FAST_FORWARD));
+        ReplayDto replay = new TraceReplayer(traceLog).replay(result.getTraceId());
+
+        assertAll(
+                () -> assertTrue(replay.isMatching(), () -> "Diverged at " + replay.getDivergedAt()
+                        + ": recorded " + replay.getRecorded() + ", replayed " + replay.getReplayed()),
+                () -> assertEquals(result.getRulesFired(), replay.getRecordedFirings()),
+                () -> assertEquals(result.getRulesFired(), replay.getReplayedFirings()),
+                () -> assertEquals(traceLog.read(result.getTraceId(), 0, TraceLog.MAX_PAGE).getRecords(),
+                        traceLog.read(replay.getReplayTraceId(), 0, TraceLog.MAX_PAGE).getRecords())
+        );
+
+        fixture.close();
+    }
+
+    @Test
+    public void testRealTimeRunReplaysWithoutWaiting() {
+        SimulationFixture fixture = new SimulationFixture();
+        TraceLog traceLog = fixture.traceLog;
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+
+        SimulationControl control = new SimulationControl();
+        canceller.schedule(control::cancel, 3, TimeUnit.SECONDS);
+        EventListDto result = fixture.service.runSystem(systemState(SimulationMode.REAL_TIME), control);
+        ReplayDto replay = new TraceReplayer(traceLog).replay(result.getTraceId());
+
+        assertAll(
+                () -> assertTrue(replay.isMatching(), () -> "Diverged at " + replay.getDivergedAt()
+                        + ": recorded " + replay.getRecorded() + ", replayed " + replay.getReplayed()),
+                () -> assertEquals(result.getRulesFired(), replay.getReplayedFirings()),
+                // the recorded run took three seconds of wall time
+                () -> assertTrue(replay.getVirtualTime() >= 2500),
+                () -> assertTrue(replay.getWallTimeMillis() < 2500)
+        );
+
+        canceller.shutdownNow();
+        fixture.close();
+    }
+
+    @Test
+    public void testTraceThatCannotBeOpenedReturnsTheSession() throws IOException {
+        // a regular file where the trace directory should be, no trace can be created under it
+        Path notADirectory = Files.createTempFile("traces", ".txt");
+        SimulationFixture fixture = new SimulationFixture(new TraceLog(notADirectory.toString(), 1 << 20, 10));
+
+        assertThrows(UncheckedIOException.class, () -> fixture.service.runSystem(systemState(SimulationMode.FAST_FORWARD)));
+
+        assertAll(
+                () -> assertEquals(0, fixture.pool.getMetrics().getInUse()),
+                () -> assertEquals(1, fixture.pool.getMetrics().getIdle())
+        );
+
+        fixture.close();
+    }
+
+    @Test
+    public void testTraceWithoutSystemStateIsNotReplayable() {
+        TraceLog traceLog = SimulationFixture.traceLog(1 << 20);
+        KieSession kieSession = DroolsUtil.getSession();
+        TraceWriter trace = traceLog.open(kieSession);
+        trace.close();
+        kieSession.dispose();
+
+        assertThrows(TraceNotReplayableException.class, () -> new TraceReplayer(traceLog).replay(trace.getId()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.listener.FiredRule;
+import com.ftn.sbnz.listener.TriggeredRulesListener;
+import com.ftn.sbnz.model.enums.CpuCoreStatus;
+import com.ftn.sbnz.model.enums.InstructionType;
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.enums.SchedulingPolicy;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.dtos.EventBatchDto;
+import com.ftn.sbnz.service.dtos.EventType;
+import com.ftn.sbnz.service.simulation.EventStream;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.runtime.KieSession;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriggeredRulesListenerTests {
+
+    private static List<String> describe(Collection<FiredRule> firedRules) {
+        return firedRules.stream()
+                .map(firedRule -> firedRule.getEventType() + ":" + firedRule.getProcessId())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRecordsReportedRulesWithTheirProcess() {
+        KieSession kieSession = DroolsUtil.getSession();
+        TriggeredRulesListener listener = new TriggeredRulesListener();
+        kieSession.addEventListener(listener);
+
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR)));
+        kieSession.insert(new CpuCore(null, CpuCoreStatus.IDLE, 0));
+        int firedRules = kieSession.fireAllRules();
+
+        assertAll(
+                () -> assertEquals(firedRules, listener.getRulesFired()),
+                // the ten executed instructions are counted but not reported
+                () -> assertEquals(List.of("PROCESS_READY:1", "PROCESS_SCHEDULED:1", "PROCESS_FINISHED:1", "END:-1"),
+                        describe(listener.getFiredRules()))
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testStreamedEventsAreBatchedAndOnlyATailIsKept() {
+        KieSession kieSession = DroolsUtil.getSession();
+        List<EventBatchDto> frames = new ArrayList<>();
+        EventStream stream = new EventStream("job", 3, 2, frames::add);
+        TriggeredRulesListener listener = new TriggeredRulesListener(stream.getTailSize(), stream::publish);
+        kieSession.addEventListener(listener);
+
+        kieSession.insert(new MemoryState(8192, 8192));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new Process(1, 5, 1024, ProcessStatus.NEW, 0, Collections.nCopies(10, InstructionType.REGULAR)));
+        kieSession.insert(new CpuCore(null, CpuCoreStatus.IDLE, 0));
+        kieSession.fireAllRules();
+        stream.close();
+
+        assertAll(
+                () -> assertEquals(4, listener.getReportedEvents()),
+                () -> assertEquals(List.of("PROCESS_FINISHED:1", "END:-1"), describe(listener.getFiredRules())),
+                () -> assertEquals(2, frames.size()),
+                () -> assertEquals(3, frames.get(0).getEvents().size()),
+                () -> assertFalse(frames.get(0).isLast()),
+                () -> assertEquals(1, frames.get(1).getEvents().size()),
+                () -> assertEquals(1, frames.get(1).getSequence()),
+                () -> assertTrue(frames.get(1).isLast())
+        );
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testPreemptionIsReportedForThePreemptedProcess() {
+        KieSession kieSession = DroolsUtil.getSession();
+        TriggeredRulesListener listener = new TriggeredRulesListener();
+        kieSession.addEventListener(listener);
+
+        kieSession.insert(new MemoryState(8192, 6144));
+        kieSession.insert(new CpuState(true));
+        kieSession.insert(new Process(1, 3, 1024, ProcessStatus.RUNNING, 0, Collections.nCopies(10, InstructionType.REGULAR)));
+        kieSession.insert(new Process(2, 7, 1024, ProcessStatus.READY, 0, Collections.nCopies(10, InstructionType.REGULAR)));
+        kieSession.insert(new CpuCore(1, CpuCoreStatus.BUSY, 0));
+        kieSession.fireAllRules(1);
+
+        assertEquals(List.of("PREEMPTED:1"), describe(listener.getFiredRules()));
+
+        kieSession.dispose();
+    }
+
+    @Test
+    public void testEventTypeMetadataNamesKnownEventTypes() {
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            for (KiePackage kiePackage : DroolsUtil.getKieBase(policy).getKiePackages()) {
+                for (Rule rule : kiePackage.getRules()) {
+                    Object eventType = rule.getMetaData().get("eventType");
+                    if (eventType != null) {
+                        assertDoesNotThrow(() -> EventType.valueOf(eventType.toString()), rule.getName());
+                    }
+                }
+            }
+        }
+    }
+}
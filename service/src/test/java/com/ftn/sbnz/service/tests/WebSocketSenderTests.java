@@ -0,0 +1,100 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.service.WebSocketSender;
+import com.ftn.sbnz.service.dtos.WebSocketMetricsDto;
+import org.junit.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class WebSocketSenderTests {
+
+    // a client that does not read anything until the latch is released
+    private static WebSocketSession slowSession(CountDownLatch released, List<String> received) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("slow");
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            released.await();
+            received.add(invocation.<TextMessage>getArgument(0).getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static void awaitIdle(WebSocketSender sender) throws InterruptedException {
+        for (int i = 0; i < 100 && sender.getMetrics().getQueuedFrames() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(50);
+    }
+
+    @Test
+    public void testSlowClientDoesNotBlockProducerAndOnlyGetsLatestTemperature() throws Exception {
+        WebSocketSender sender = new WebSocketSender(1, 16);
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        WebSocketSession session = slowSession(released, received);
+        sender.register(session);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            sender.sendLatest(session, new TextMessage(String.valueOf(i)));
+        }
+        long producerMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        released.countDown();
+        awaitIdle(sender);
+        WebSocketMetricsDto metrics = sender.getMetrics();
+
+        assertAll(
+                () -> assertTrue(producerMillis < 1000),
+                // the frame taken before the client stalled and the latest one
+                () -> assertTrue(received.size() <= 2),
+                () -> assertEquals("999", received.get(received.size() - 1)),
+                () -> assertEquals(1000, metrics.getSentFrames() + metrics.getCoalescedFrames())
+        );
+
+        sender.shutdown();
+    }
+
+    @Test
+    public void testFullOutboxDropsOldestFramesAndKeepsOrder() throws Exception {
+        WebSocketSender sender = new WebSocketSender(1, 4);
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        WebSocketSession session = slowSession(released, received);
+        sender.register(session);
+
+        for (int i = 0; i < 10; i++) {
+            sender.send(session, new TextMessage(String.valueOf(i)));
+        }
+        sender.close(session, CloseStatus.NORMAL);
+        int queuedWhileStalled = sender.getMetrics().getQueuedFrames();
+
+        released.countDown();
+        awaitIdle(sender);
+        WebSocketMetricsDto metrics = sender.getMetrics();
+        List<Integer> frames = received.stream().map(Integer::valueOf).collect(Collectors.toList());
+
+        assertAll(
+                () -> assertTrue(queuedWhileStalled <= 4),
+                () -> assertEquals(10, metrics.getSentFrames() + metrics.getDroppedFrames()),
+                () -> assertEquals(List.of(6, 7, 8, 9), frames.subList(frames.size() - 4, frames.size())),
+                () -> assertEquals(frames.stream().sorted().collect(Collectors.toList()), frames)
+        );
+        verify(session).close(CloseStatus.NORMAL);
+
+        sender.shutdown();
+    }
+}
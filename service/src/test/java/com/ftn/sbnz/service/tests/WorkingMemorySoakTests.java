@@ -0,0 +1,84 @@
+package com.ftn.sbnz.service.tests;
+
+import com.ftn.sbnz.model.enums.ProcessStatus;
+import com.ftn.sbnz.model.models.CpuCore;
+import com.ftn.sbnz.model.models.CpuState;
+import com.ftn.sbnz.model.models.InstructionStream;
+import com.ftn.sbnz.model.models.MemoryState;
+import com.ftn.sbnz.model.models.Process;
+import com.ftn.sbnz.service.simulation.EventGenerator;
+import com.ftn.sbnz.utils.DroolsUtil;
+import org.junit.Test;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.time.SessionPseudoClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkingMemorySoakTests {
+
+    private static final int PROCESSES = 20;
+    private static final long DURATION_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // longest event lifetime, after it the live events no longer depend on how long the simulation ran
+    private static final long WARM_UP_MILLIS = TimeUnit.SECONDS.toMillis(20);
+
+    // the streamed events live in their own entry points
+    private static long factCount(KieSession kieSession) {
+        return kieSession.getEntryPoints().stream().mapToLong(EntryPoint::getFactCount).sum();
+    }
+
+    @Test
+    public void testWorkingMemoryStaysBoundedDuringLongSimulation() {
+        KieSession kieSession = DroolsUtil.getSession();
+        SessionPseudoClock clock = kieSession.getSessionClock();
+
+        // not every process fits into memory at once, so admission, thrashing and suspension all take part
+        kieSession.insert(new MemoryState(PROCESSES * 200));
+        kieSession.insert(new CpuState());
+        for (int id = 1; id <= 2; id++) {
+            CpuCore core = new CpuCore(id);
+            core.attachClock(clock);
+            kieSession.insert(core);
+        }
+
+        List<Process> processes = new ArrayList<>();
+        for (int id = 1; id <= PROCESSES; id++) {
+            // every fifth instruction is an I/O instruction
+            InstructionStream instructions = InstructionStream.of(50, IntStream.iterate(4, offset -> offset + 5).limit(10).toArray());
+            Process process = new Process(id, 1 + id % 10, 256, ProcessStatus.NEW, 0, instructions);
+            process.attachClock(clock);
+            processes.add(process);
+            kieSession.insert(process);
+        }
+
+        EventGenerator generator = new EventGenerator(kieSession, processes, new Random(42), temperature -> {});
+        long[] factCounts = new long[(int) (DURATION_MILLIS / EventGenerator.TICK_MILLIS) + 1];
+        for (int tick = 0; tick < factCounts.length; tick++) {
+            generator.emitDue(tick * EventGenerator.TICK_MILLIS);
+            kieSession.fireAllRules();
+            factCounts[tick] = factCount(kieSession);
+            clock.advanceTime(EventGenerator.TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        long afterWarmUp = factCounts[(int) (WARM_UP_MILLIS / EventGenerator.TICK_MILLIS)];
+        long peak = LongStream.of(factCounts).max().orElse(0);
+        long last = factCounts[factCounts.length - 1];
+
+        assertAll(
+                // an hour of I/O ticks used to leave an unmatched I/O event per process behind every 1.5 s
+                () -> assertTrue(peak < 150, () -> "At most " + peak + " facts"),
+                () -> assertTrue(last <= afterWarmUp + PROCESSES,
+                        () -> last + " facts after an hour, " + afterWarmUp + " after the warm-up"),
+                () -> assertTrue(processes.stream().allMatch(process -> process.getStatus() == ProcessStatus.EXIT))
+        );
+
+        kieSession.dispose();
+    }
+}